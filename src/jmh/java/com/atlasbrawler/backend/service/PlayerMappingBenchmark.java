@@ -0,0 +1,43 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.domain.Player;
+import com.atlasbrawler.backend.dto.PlayerResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping behind every player read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerMappingBenchmark {
+
+    private PlayerService playerService;
+    private Player player;
+
+    @Setup
+    public void setUp() {
+        playerService = new PlayerService(null, null, null, null, null, null);
+        player = Player.builder()
+            .id(42L)
+            .walletAddress("0x8ba1f109551bd432803012645ac136ddd64dba72")
+            .username("skater")
+            .softTokenBalance(new BigDecimal("1250"))
+            .cUSDBalance(new BigDecimal("0.37"))
+            .totalGamesPlayed(125)
+            .totalWins(40)
+            .highScore(98_000)
+            .build();
+    }
+
+    @Benchmark
+    public PlayerResponse mapToResponse() {
+        return playerService.mapToResponse(player);
+    }
+}
@@ -0,0 +1,113 @@
+package com.atlasbrawler.backend.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reward inserts against a live PostgreSQL, comparing the old IDENTITY ids written
+ * row by row with pooled-sequence ids sent as one JDBC batch, which is what
+ * Hibernate does for the bulk session path. Scores are inserts per second.
+ *
+ * Needs a reachable database, configured through BENCH_DB_URL, BENCH_DB_USER and
+ * BENCH_DB_PASSWORD. Everything runs against temporary tables.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RewardInsertBenchmark {
+
+    private static final int ROWS = 500;
+
+    private static final String IDENTITY_INSERT =
+        "INSERT INTO bench_rewards_identity (player_id, reward_type, amount, status, waves_survived, score, reason, created_at) " +
+        "VALUES (?, 'WAVE_SURVIVAL', ?, 'PENDING', ?, ?, 'Wave survival reward', ?)";
+
+    private static final String SEQUENCE_INSERT =
+        "INSERT INTO bench_rewards_sequence (id, player_id, reward_type, amount, status, waves_survived, score, reason, created_at) " +
+        "VALUES (nextval('bench_rewards_seq'), ?, 'WAVE_SURVIVAL', ?, 'PENDING', ?, ?, 'Wave survival reward', ?)";
+
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    @Param({"false", "true"})
+    public boolean reWriteBatchedInserts;
+
+    private Connection connection;
+
+    @Setup
+    public void setUp() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", env("BENCH_DB_USER", "postgres"));
+        properties.setProperty("password", env("BENCH_DB_PASSWORD", "postgres"));
+        properties.setProperty("reWriteBatchedInserts", Boolean.toString(reWriteBatchedInserts));
+        connection = DriverManager.getConnection(env("BENCH_DB_URL", "jdbc:postgresql://localhost:5432/atlasbrawler"), properties);
+        connection.setAutoCommit(false);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TEMP TABLE bench_rewards_identity (id bigserial PRIMARY KEY, player_id bigint, " +
+                "reward_type varchar(32), amount numeric(18,6), status varchar(32), waves_survived int, score int, " +
+                "reason varchar(255), created_at timestamp)");
+            statement.execute("CREATE TEMP TABLE bench_rewards_sequence (LIKE bench_rewards_identity)");
+            statement.execute("CREATE TEMP SEQUENCE bench_rewards_seq INCREMENT BY 50");
+        }
+        connection.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void identityRowByRow() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(IDENTITY_INSERT)) {
+            for (int i = 0; i < ROWS; i++) {
+                bind(statement, i);
+                statement.executeUpdate();
+            }
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void sequenceBatched() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SEQUENCE_INSERT)) {
+            for (int i = 0; i < ROWS; i++) {
+                bind(statement, i);
+                statement.addBatch();
+                if ((i + 1) % 50 == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+        connection.commit();
+    }
+
+    private static void bind(PreparedStatement statement, int i) throws SQLException {
+        statement.setLong(1, i % 100);
+        statement.setBigDecimal(2, AMOUNT);
+        statement.setInt(3, i % 20);
+        statement.setInt(4, i * 10);
+        statement.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? fallback : value;
+    }
+}
@@ -0,0 +1,57 @@
+package com.atlasbrawler.backend.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.SignedRawTransaction;
+import org.web3j.crypto.TransactionDecoder;
+import org.web3j.crypto.TransactionEncoder;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding and signer recovery done by processSignedTransaction before a
+ * deposit is broadcast.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignedTransactionBenchmark {
+
+    private static final String PRIVATE_KEY = "0x4c0883a69102937d6231471b5dbb6204fe5129617082792ae468d01a3f362318";
+
+    private String signedTransaction;
+    private SignedRawTransaction decoded;
+
+    @Setup
+    public void setUp() {
+        RawTransaction rawTx = RawTransaction.createEtherTransaction(
+            BigInteger.valueOf(7),
+            BigInteger.valueOf(25_000_000_000L),
+            BigInteger.valueOf(21_000),
+            "0x8ba1f109551bd432803012645ac136ddd64dba72",
+            new BigInteger("10000000000000000"));
+        signedTransaction = Numeric.toHexString(TransactionEncoder.signMessage(rawTx, Credentials.create(PRIVATE_KEY)));
+        decoded = (SignedRawTransaction) TransactionDecoder.decode(signedTransaction);
+    }
+
+    @Benchmark
+    public RawTransaction decode() {
+        return TransactionDecoder.decode(signedTransaction);
+    }
+
+    @Benchmark
+    public String recoverSigner() throws Exception {
+        return BlockchainService.recoverSigner(decoded);
+    }
+
+    @Benchmark
+    public String decodeAndRecoverSigner() throws Exception {
+        return BlockchainService.recoverSigner((SignedRawTransaction) TransactionDecoder.decode(signedTransaction));
+    }
+}
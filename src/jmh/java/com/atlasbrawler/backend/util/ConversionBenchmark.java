@@ -0,0 +1,40 @@
+package com.atlasbrawler.backend.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wei/ether conversions applied to every deposit and payout amount.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+
+    private BlockchainUtil blockchainUtil;
+    private BigInteger wei;
+    private BigDecimal ether;
+
+    @Setup
+    public void setUp() {
+        blockchainUtil = new BlockchainUtil();
+        wei = new BigInteger("12345678900000000");
+        ether = new BigDecimal("0.0123456789");
+    }
+
+    @Benchmark
+    public BigDecimal weiToEther() {
+        return blockchainUtil.weiToEther(wei);
+    }
+
+    @Benchmark
+    public BigInteger etherToWei() {
+        return blockchainUtil.etherToWei(ether);
+    }
+}
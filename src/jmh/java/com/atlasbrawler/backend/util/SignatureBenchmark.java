@@ -0,0 +1,76 @@
+package com.atlasbrawler.backend.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Sign;
+import org.web3j.utils.Numeric;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Personal-message signature paths used by registration and reward claims.
+ * cacheSize=0 measures the full secp256k1 recovery, the default size measures
+ * a retried (message, signature) pair.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignatureBenchmark {
+
+    private static final String PRIVATE_KEY = "0x4c0883a69102937d6231471b5dbb6204fe5129617082792ae468d01a3f362318";
+
+    @Param({"0", "10000"})
+    private long cacheSize;
+
+    private SignatureUtil signatureUtil;
+    private String message;
+    private String signature;
+    private String address;
+    private String messageHash;
+
+    @Setup
+    public void setUp() {
+        signatureUtil = new SignatureUtil(cacheSize, 1, new SimpleMeterRegistry());
+        Credentials credentials = Credentials.create(PRIVATE_KEY);
+        address = credentials.getAddress();
+        message = "Claim reward: 42";
+
+        Sign.SignatureData data = Sign.signPrefixedMessage(message.getBytes(StandardCharsets.UTF_8), credentials.getEcKeyPair());
+        byte[] signatureBytes = new byte[65];
+        System.arraycopy(data.getR(), 0, signatureBytes, 0, 32);
+        System.arraycopy(data.getS(), 0, signatureBytes, 32, 32);
+        signatureBytes[64] = data.getV()[0];
+        signature = Numeric.toHexString(signatureBytes);
+        messageHash = Numeric.toHexString(signatureUtil.getEthereumMessageHash(message));
+    }
+
+    @TearDown
+    public void tearDown() {
+        signatureUtil.shutdown();
+    }
+
+    @Benchmark
+    public boolean verifySignature() {
+        return signatureUtil.verifySignature(message, signature, address);
+    }
+
+    @Benchmark
+    public String recoverAddress() {
+        return signatureUtil.recoverAddress(messageHash, signature);
+    }
+
+    @Benchmark
+    public byte[] getEthereumMessageHash() {
+        return signatureUtil.getEthereumMessageHash(message);
+    }
+
+    @Benchmark
+    public boolean isValidAddress() {
+        return signatureUtil.isValidAddress(address);
+    }
+}
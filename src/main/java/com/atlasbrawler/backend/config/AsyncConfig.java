@@ -1,15 +1,27 @@
 package com.atlasbrawler.backend.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
+/**
+ * With {@code spring.threads.virtual.enabled=true} on Java 21, Spring Boot moves
+ * Tomcat request handling to virtual threads and {@code taskExecutor} starts one
+ * virtual thread per task instead of queueing on a fixed pool. Otherwise the
+ * platform-thread pool below is used. Blockchain I/O does not follow this switch:
+ * it stays on the bounded {@code chainIoExecutor} from {@link BlockchainExecutorConfig}.
+ */
 @Configuration
 public class AsyncConfig {
     
     @Bean(name = "taskExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
     public Executor taskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
@@ -19,4 +31,13 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+    
+    @Bean(name = "taskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualTaskExecutor(@Value("${async.virtual.concurrency-limit:500}") int concurrencyLimit) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("async-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        return executor;
+    }
 }
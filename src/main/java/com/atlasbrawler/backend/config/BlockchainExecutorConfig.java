@@ -0,0 +1,63 @@
+package com.atlasbrawler.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Collections;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor reserved for blockchain I/O, used by {@code WalletBalanceCache} for its
+ * balance loads and by {@code TransactionReceiptTracker} for the receipt rounds a new
+ * block triggers, so they never run on the common ForkJoinPool or the general async
+ * pool. It is bounded and rejects work once its queue is full, which surfaces as a
+ * failed future to the caller.
+ */
+@Configuration
+public class BlockchainExecutorConfig {
+    
+    @Value("${celo.io.executor.core-size:8}")
+    private int coreSize;
+    
+    @Value("${celo.io.executor.max-size:32}")
+    private int maxSize;
+    
+    @Value("${celo.io.executor.queue-capacity:1000}")
+    private int queueCapacity;
+    
+    @Bean(name = "chainIoExecutor")
+    public ThreadPoolTaskExecutor chainIoExecutor(MeterRegistry meterRegistry) {
+        Timer taskLatency = Timer.builder("chain.io.task.latency")
+            .description("Time from submission to completion of blockchain I/O tasks, queue wait included")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("chain-io-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setTaskDecorator(task -> {
+            long submittedAt = System.nanoTime();
+            return () -> {
+                try {
+                    task.run();
+                } finally {
+                    taskLatency.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                }
+            };
+        });
+        executor.initialize();
+        
+        // Queue depth, active threads and completed tasks as executor.* gauges
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "chainIo", Collections.emptyList());
+        return executor;
+    }
+}
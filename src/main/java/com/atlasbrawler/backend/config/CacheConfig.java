@@ -0,0 +1,17 @@
+package com.atlasbrawler.backend.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache sizes and TTLs live under {@code spring.cache.*}; the names here must
+ * match {@code spring.cache.cache-names} so their metrics are registered at startup.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    
+    public static final String PLAYERS = "players";
+    
+    public static final String WALLET_KEY = "#walletAddress.toLowerCase()";
+}
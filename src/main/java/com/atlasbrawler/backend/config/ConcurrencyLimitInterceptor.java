@@ -0,0 +1,47 @@
+package com.atlasbrawler.backend.config;
+
+import com.atlasbrawler.backend.util.RetryLaterException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the number of requests in flight on routes that wait on the Celo node.
+ * Requests beyond the cap are rejected with a 503 at once, instead of queueing
+ * until request threads and the chain I/O pool are exhausted.
+ */
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+    private final Semaphore permits;
+    private final MeterRegistry meterRegistry;
+
+    public ConcurrencyLimitInterceptor(int maxConcurrent, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrent);
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("ratelimit.rpc.inflight", permits, p -> maxConcurrent - p.availablePermits());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!permits.tryAcquire()) {
+            meterRegistry.counter("ratelimit.rpc.shed").increment();
+            throw new RetryLaterException(HttpStatus.SERVICE_UNAVAILABLE, "Too many requests in flight", 1);
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.atlasbrawler.backend.config;
+
+import com.atlasbrawler.backend.util.RateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies a route's per-IP limit before the request body is read, so a flood is
+ * turned away without parsing or validation. Per-wallet limits need the body and
+ * are taken in the controllers.
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiter rateLimiter;
+    private final RateLimiter.Route route;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter, RateLimiter.Route route) {
+        this.rateLimiter = rateLimiter;
+        this.route = route;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        rateLimiter.acquire(route, RateLimiter.KeyType.IP, request.getRemoteAddr());
+        return true;
+    }
+}
@@ -1,12 +1,20 @@
 package com.atlasbrawler.backend.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -18,20 +26,45 @@ import java.util.List;
 @EnableWebSecurity
 public class SecurityConfig {
     
+    private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
+    private static final String DEFAULT_PASSWORD = "admin123";
+    
+    @Value("${spring.security.user.password:}")
+    private String userPassword;
+    
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        // The shipped password is public, so routes behind it stay closed until it is changed
+        boolean defaultPassword = DEFAULT_PASSWORD.equals(userPassword);
+        if (defaultPassword) {
+            logger.warn("SPRING_SECURITY_USER_PASSWORD is not set; /export, /signatures, /actuator and /game/sessions/complete are refused");
+        }
+        AuthorizationManager<RequestAuthorizationContext> operators = defaultPassword
+            ? (authentication, context) -> new AuthorizationDecision(false)
+            : AuthenticatedAuthorizationManager.authenticated();
+        
         http
             .csrf(AbstractHttpConfigurer::disable)
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Bulk ingest creates claimable rewards for any wallet, so only operators may call it
+                .requestMatchers("/game/sessions/complete").access(operators)
                 .requestMatchers("/api/health/**").permitAll()
                 .requestMatchers("/api/players/**").permitAll()
                 .requestMatchers("/api/game/**").permitAll()
                 .requestMatchers("/api/rewards/**").permitAll()
-                .requestMatchers("/actuator/**").permitAll()
+                .requestMatchers("/api/cash-pools/**").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                // Metrics, caches and info describe the deployment; only operators may read them
+                .requestMatchers("/actuator/**").access(operators)
+                // Bulk data exports are for internal analytics only
+                .requestMatchers("/export/**").access(operators)
+                // Bulk verification burns CPU per item, so it is not open to anonymous callers
+                .requestMatchers("/signatures/**").access(operators)
                 .anyRequest().permitAll()
-            );
+            )
+            .httpBasic(Customizer.withDefaults());
         
         return http.build();
     }
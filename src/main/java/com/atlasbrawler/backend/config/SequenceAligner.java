@@ -0,0 +1,53 @@
+package com.atlasbrawler.backend.config;
+
+import com.atlasbrawler.backend.domain.IdSequences;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves the pooled ID sequences past ids already in their tables. Databases created
+ * while these tables used IDENTITY columns get fresh sequences from ddl-auto that
+ * start at 1, which would collide with existing rows. Runs once the
+ * EntityManagerFactory, and with it the schema update, is ready.
+ */
+@Component
+public class SequenceAligner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequenceAligner.class);
+    private static final Map<String, String> SEQUENCES = Map.of(
+        IdSequences.PLAYERS, "players",
+        IdSequences.REWARDS, "rewards",
+        IdSequences.SKATER_CARDS, "skater_cards",
+        IdSequences.TRANSACTIONS, "transactions",
+        IdSequences.CASH_POOL_CONTRIBUTIONS, "cash_pool_contributions",
+        IdSequences.PAYOUT_ATTEMPTS, "payout_attempts"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        SEQUENCES.forEach((sequence, table) -> {
+            try {
+                // Hibernate hands out (value - allocationSize, value], so the next value must clear max(id) by a full block
+                Long value = jdbcTemplate.queryForObject(
+                    "SELECT setval('" + sequence + "', GREATEST(" +
+                    "(SELECT COALESCE(MAX(id), 0) FROM " + table + ") + " + IdSequences.ALLOCATION_SIZE + ", " +
+                    "(SELECT last_value FROM " + sequence + ")))", Long.class);
+                logger.debug("Sequence {} aligned at {}", sequence, value);
+            } catch (Exception e) {
+                logger.warn("Could not align sequence {} with table {}", sequence, table, e);
+            }
+        });
+    }
+}
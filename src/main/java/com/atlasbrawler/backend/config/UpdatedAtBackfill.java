@@ -0,0 +1,46 @@
+package com.atlasbrawler.backend.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Fills {@code updated_at} on reward and transaction rows written before the column
+ * existed, from the last timestamp the row already had, so incremental exports see
+ * them. Runs once the EntityManagerFactory, and with it the schema update, is ready.
+ */
+@Component
+public class UpdatedAtBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(UpdatedAtBackfill.class);
+    private static final Map<String, String> LAST_CHANGED = Map.of(
+        "rewards", "COALESCE(claimed_at, created_at)",
+        "transactions", "COALESCE(confirmed_at, created_at)"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UpdatedAtBackfill(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        LAST_CHANGED.forEach((table, lastChanged) -> {
+            try {
+                int rows = jdbcTemplate.update(
+                    "UPDATE " + table + " SET updated_at = " + lastChanged + " WHERE updated_at IS NULL");
+                if (rows > 0) {
+                    logger.info("Backfilled updated_at on {} {} rows", rows, table);
+                }
+            } catch (Exception e) {
+                logger.warn("Could not backfill updated_at on {}", table, e);
+            }
+        });
+    }
+}
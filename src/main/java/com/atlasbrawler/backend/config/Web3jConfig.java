@@ -1,13 +1,22 @@
 package com.atlasbrawler.backend.config;
 
+import com.atlasbrawler.backend.util.InstrumentedHttpService;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.web3j.crypto.Credentials;
 import org.web3j.protocol.Web3j;
-import org.web3j.protocol.http.HttpService;
 import org.web3j.tx.gas.DefaultGasProvider;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class Web3jConfig {
     
@@ -20,9 +29,41 @@ public class Web3jConfig {
     @Value("${celo.chain.id}")
     private Long chainId;
     
+    @Value("${celo.rpc.http.max-idle-connections:8}")
+    private int maxIdleConnections;
+    
+    @Value("${celo.rpc.http.keep-alive-seconds:300}")
+    private long keepAliveSeconds;
+    
+    @Value("${celo.rpc.http.max-requests-per-host:64}")
+    private int maxRequestsPerHost;
+    
+    @Value("${celo.rpc.http.timeout-seconds:30}")
+    private long timeoutSeconds;
+    
+    @Bean
+    public Web3j web3j(MeterRegistry meterRegistry) {
+        return Web3j.build(new InstrumentedHttpService(rpcUrl, rpcHttpClient(), meterRegistry));
+    }
+    
+    /**
+     * Shared client for all RPC traffic: keeps a pool of warm connections to the
+     * endpoint and prefers HTTP/2 so concurrent calls multiplex over one socket.
+     */
     @Bean
-    public Web3j web3j() {
-        return Web3j.build(new HttpService(rpcUrl));
+    public OkHttpClient rpcHttpClient() {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        
+        return new OkHttpClient.Builder()
+            .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS))
+            .dispatcher(dispatcher)
+            .connectTimeout(Duration.ofSeconds(timeoutSeconds))
+            .readTimeout(Duration.ofSeconds(timeoutSeconds))
+            .writeTimeout(Duration.ofSeconds(timeoutSeconds))
+            .retryOnConnectionFailure(true)
+            .build();
     }
     
     @Bean
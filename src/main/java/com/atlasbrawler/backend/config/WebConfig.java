@@ -0,0 +1,43 @@
+package com.atlasbrawler.backend.config;
+
+import com.atlasbrawler.backend.util.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Admission control for the write-heavy and RPC-bound routes: per-IP token buckets
+ * on session and claim submissions, and a concurrency cap on transaction
+ * processing, which waits on the Celo node.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+    
+    private final RateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${rate-limit.rpc.max-concurrent:32}")
+    private int rpcMaxConcurrent;
+    
+    public WebConfig(RateLimiter rateLimiter, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter, RateLimiter.Route.GAME_SESSION))
+            .addPathPatterns("/game/session/complete");
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter, RateLimiter.Route.GAME_SESSIONS_BULK))
+            .addPathPatterns("/game/sessions/complete");
+        registry.addInterceptor(new RateLimitInterceptor(rateLimiter, RateLimiter.Route.REWARD_CLAIM))
+            .addPathPatterns("/rewards/claim");
+        
+        if (rpcMaxConcurrent > 0) {
+            registry.addInterceptor(new ConcurrencyLimitInterceptor(rpcMaxConcurrent, meterRegistry))
+                .addPathPatterns("/players/process-transaction");
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.atlasbrawler.backend.controller;
+
+import com.atlasbrawler.backend.dto.CashPoolContributionRequest;
+import com.atlasbrawler.backend.dto.CashPoolContributionResponse;
+import com.atlasbrawler.backend.dto.CashPoolCreateRequest;
+import com.atlasbrawler.backend.dto.CashPoolResponse;
+import com.atlasbrawler.backend.service.CashPoolService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/cash-pools")
+public class CashPoolController {
+    
+    private final CashPoolService cashPoolService;
+    
+    public CashPoolController(CashPoolService cashPoolService) {
+        this.cashPoolService = cashPoolService;
+    }
+    
+    @PostMapping
+    public ResponseEntity<CashPoolResponse> createPool(@Valid @RequestBody CashPoolCreateRequest request) {
+        CashPoolResponse response = cashPoolService.createPool(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    @GetMapping("/{poolId}")
+    public ResponseEntity<CashPoolResponse> getPool(@PathVariable Long poolId) {
+        CashPoolResponse response = cashPoolService.getPool(poolId);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/{poolId}/contributions")
+    public ResponseEntity<CashPoolContributionResponse> contribute(
+            @PathVariable Long poolId,
+            @Valid @RequestBody CashPoolContributionRequest request) {
+        CashPoolContributionResponse response = cashPoolService.contribute(poolId, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+}
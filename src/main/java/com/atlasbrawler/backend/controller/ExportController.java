@@ -0,0 +1,52 @@
+package com.atlasbrawler.backend.controller;
+
+import com.atlasbrawler.backend.service.ExportService;
+import com.atlasbrawler.backend.service.ExportService.ExportFormat;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/export")
+public class ExportController {
+    
+    private final ExportService exportService;
+    
+    @Value("${export.request-timeout-ms:3600000}")
+    private long requestTimeoutMs;
+    
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+    
+    /**
+     * Streams the export on an async task with its own timeout, so only exports get
+     * the long timeout and every other async request keeps the default.
+     */
+    @GetMapping("/{dataset}")
+    public WebAsyncTask<Void> export(
+            @PathVariable String dataset,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            HttpServletResponse response) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        StreamingResponseBody body = exportService.export(dataset, exportFormat, since);
+        response.setContentType(exportFormat.getMediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+            .filename(dataset + "." + exportFormat.getExtension())
+            .build()
+            .toString());
+        return new WebAsyncTask<>(requestTimeoutMs, () -> {
+            body.writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+}
@@ -1,6 +1,8 @@
 package com.atlasbrawler.backend.controller;
 
 import com.atlasbrawler.backend.domain.Reward;
+import com.atlasbrawler.backend.dto.BulkGameSessionRequest;
+import com.atlasbrawler.backend.dto.BulkGameSessionResponse;
 import com.atlasbrawler.backend.dto.GameSessionRequest;
 import com.atlasbrawler.backend.service.RewardService;
 import jakarta.validation.Valid;
@@ -23,4 +25,11 @@ public class GameController {
         Reward reward = rewardService.processGameSession(request);
         return ResponseEntity.ok(reward);
     }
+    
+    @PostMapping("/sessions/complete")
+    public ResponseEntity<BulkGameSessionResponse> completeGameSessions(
+            @Valid @RequestBody BulkGameSessionRequest request) {
+        BulkGameSessionResponse response = rewardService.processGameSessions(request.getSessions());
+        return ResponseEntity.ok(response);
+    }
 }
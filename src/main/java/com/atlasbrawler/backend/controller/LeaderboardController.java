@@ -0,0 +1,41 @@
+package com.atlasbrawler.backend.controller;
+
+import com.atlasbrawler.backend.dto.LeaderboardEntry;
+import com.atlasbrawler.backend.service.LeaderboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/leaderboard")
+public class LeaderboardController {
+    
+    private static final int MAX_LIMIT = 100;
+    
+    private final LeaderboardService leaderboardService;
+    
+    public LeaderboardController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+    
+    @GetMapping("/top")
+    public ResponseEntity<List<LeaderboardEntry>> getTop(@RequestParam(defaultValue = "10") int limit) {
+        List<LeaderboardEntry> entries = leaderboardService.getTop(Math.min(Math.max(limit, 1), MAX_LIMIT));
+        return ResponseEntity.ok(entries);
+    }
+    
+    @GetMapping("/{walletAddress}")
+    public ResponseEntity<LeaderboardEntry> getRank(@PathVariable String walletAddress) {
+        LeaderboardEntry entry = leaderboardService.getRank(walletAddress);
+        return ResponseEntity.ok(entry);
+    }
+    
+    @GetMapping("/{walletAddress}/around")
+    public ResponseEntity<List<LeaderboardEntry>> getAround(
+            @PathVariable String walletAddress,
+            @RequestParam(defaultValue = "5") int radius) {
+        List<LeaderboardEntry> entries = leaderboardService.getAround(walletAddress, Math.min(Math.max(radius, 0), MAX_LIMIT / 2));
+        return ResponseEntity.ok(entries);
+    }
+}
@@ -1,11 +1,13 @@
 package com.atlasbrawler.backend.controller;
 
+import com.atlasbrawler.backend.dto.KeysetPage;
 import com.atlasbrawler.backend.dto.PlayerRegistrationRequest;
 import com.atlasbrawler.backend.dto.PlayerResponse;
 import com.atlasbrawler.backend.dto.SignedTransactionRequest;
 import com.atlasbrawler.backend.dto.TransactionResponse;
 import com.atlasbrawler.backend.service.BlockchainService;
 import com.atlasbrawler.backend.service.PlayerService;
+import com.atlasbrawler.backend.service.TransactionLedgerService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,10 +19,13 @@ public class PlayerController {
     
     private final PlayerService playerService;
     private final BlockchainService blockchainService;
+    private final TransactionLedgerService ledgerService;
 
-    public PlayerController(PlayerService playerService, BlockchainService blockchainService) {
+    public PlayerController(PlayerService playerService, BlockchainService blockchainService,
+                            TransactionLedgerService ledgerService) {
         this.playerService = playerService;
         this.blockchainService = blockchainService;
+        this.ledgerService = ledgerService;
     }
     
     @PostMapping("/register")
@@ -48,4 +53,18 @@ public class PlayerController {
         TransactionResponse response = blockchainService.processSignedTransaction(request);
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/transactions/{transactionHash}")
+    public ResponseEntity<TransactionResponse> getTransactionStatus(@PathVariable String transactionHash) {
+        TransactionResponse response = blockchainService.getTransactionStatus(transactionHash);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{walletAddress}/transactions")
+    public ResponseEntity<KeysetPage<TransactionResponse>> getTransactionHistory(
+            @PathVariable String walletAddress,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ledgerService.getHistory(walletAddress, cursor, limit));
+    }
 }
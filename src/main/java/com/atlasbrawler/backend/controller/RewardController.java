@@ -1,14 +1,14 @@
 package com.atlasbrawler.backend.controller;
 
 import com.atlasbrawler.backend.domain.Reward;
+import com.atlasbrawler.backend.dto.KeysetPage;
 import com.atlasbrawler.backend.dto.RewardClaimRequest;
+import com.atlasbrawler.backend.dto.RewardSummary;
 import com.atlasbrawler.backend.service.RewardService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/rewards")
 public class RewardController {
@@ -26,8 +26,11 @@ public class RewardController {
     }
     
     @GetMapping("/pending/{walletAddress}")
-    public ResponseEntity<List<Reward>> getPendingRewards(@PathVariable String walletAddress) {
-        List<Reward> rewards = rewardService.getPendingRewards(walletAddress);
+    public ResponseEntity<KeysetPage<RewardSummary>> getPendingRewards(
+            @PathVariable String walletAddress,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        KeysetPage<RewardSummary> rewards = rewardService.getPendingRewards(walletAddress, cursor, limit);
         return ResponseEntity.ok(rewards);
     }
 }
@@ -0,0 +1,26 @@
+package com.atlasbrawler.backend.controller;
+
+import com.atlasbrawler.backend.dto.BatchSignatureVerificationRequest;
+import com.atlasbrawler.backend.dto.BatchSignatureVerificationResponse;
+import com.atlasbrawler.backend.util.SignatureUtil;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/signatures")
+public class SignatureController {
+    
+    private final SignatureUtil signatureUtil;
+    
+    public SignatureController(SignatureUtil signatureUtil) {
+        this.signatureUtil = signatureUtil;
+    }
+    
+    @PostMapping("/verify-batch")
+    public ResponseEntity<BatchSignatureVerificationResponse> verifyBatch(
+            @Valid @RequestBody BatchSignatureVerificationRequest request) {
+        BatchSignatureVerificationResponse response = signatureUtil.verifyBatch(request.getItems());
+        return ResponseEntity.ok(response);
+    }
+}
@@ -13,7 +13,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "cash_pools")
+@Table(name = "cash_pools",
+    uniqueConstraints = {
+        // A signed pool creation can be submitted once; retries with the same nonce are rejected
+        @UniqueConstraint(name = "uk_cash_pools_creator_nonce", columnNames = {"creator_id", "nonce"})
+    },
+    indexes = {
+        @Index(name = "idx_cash_pools_status_expires", columnList = "status, expires_at")
+    })
 @Data
 @Builder
 @NoArgsConstructor
@@ -54,6 +61,9 @@ public class CashPool {
     @Column
     private LocalDateTime expiresAt;
     
+    @Column(length = 64)
+    private String nonce;
+    
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -10,7 +10,14 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "cash_pool_contributions")
+@Table(name = "cash_pool_contributions",
+    uniqueConstraints = {
+        // A signed contribution can be submitted once; retries with the same nonce are rejected
+        @UniqueConstraint(name = "uk_contributions_contributor_nonce", columnNames = {"contributor_id", "nonce"})
+    },
+    indexes = {
+        @Index(name = "idx_contributions_pool_id", columnList = "cash_pool_id, id")
+    })
 @Data
 @Builder
 @NoArgsConstructor
@@ -18,7 +25,8 @@ import java.time.LocalDateTime;
 public class CashPoolContribution {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contribution_seq")
+    @SequenceGenerator(name = "contribution_seq", sequenceName = IdSequences.CASH_POOL_CONTRIBUTIONS, allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -35,6 +43,9 @@ public class CashPoolContribution {
     @Column(length = 66)
     private String transactionHash;
     
+    @Column(length = 64)
+    private String nonce;
+    
     @Column(nullable = false, updatable = false)
     private LocalDateTime contributedAt;
     
@@ -0,0 +1,37 @@
+package com.atlasbrawler.backend.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last block a chain indexer has fully processed, one row per indexer.
+ */
+@Entity
+@Table(name = "chain_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChainCheckpoint {
+    
+    @Id
+    @Column(length = 50)
+    private String id;
+    
+    @Column(nullable = false)
+    private Long blockNumber;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
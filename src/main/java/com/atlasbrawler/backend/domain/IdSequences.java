@@ -0,0 +1,22 @@
+package com.atlasbrawler.backend.domain;
+
+/**
+ * Pooled ID sequences for entities that are inserted in bulk. Hibernate reserves
+ * {@link #ALLOCATION_SIZE} ids per {@code nextval}, so new rows get ids without a
+ * round trip each and inserts can be batched, which IDENTITY columns rule out.
+ * Plain JDBC inserts must call {@code nextval} on the same sequence.
+ */
+public final class IdSequences {
+
+    public static final int ALLOCATION_SIZE = 50;
+
+    public static final String PLAYERS = "players_seq";
+    public static final String REWARDS = "rewards_seq";
+    public static final String SKATER_CARDS = "skater_cards_seq";
+    public static final String TRANSACTIONS = "transactions_seq";
+    public static final String CASH_POOL_CONTRIBUTIONS = "cash_pool_contributions_seq";
+    public static final String PAYOUT_ATTEMPTS = "payout_attempts_seq";
+
+    private IdSequences() {
+    }
+}
@@ -0,0 +1,38 @@
+package com.atlasbrawler.backend.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last journal segment whose entries a write-behind buffer has applied, one row per
+ * journal. Moved in the same transaction as the writes it covers.
+ */
+@Entity
+@Table(name = "journal_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalCheckpoint {
+    
+    @Id
+    @Column(length = 50)
+    private String id;
+    
+    @Column(nullable = false)
+    private Long segment;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
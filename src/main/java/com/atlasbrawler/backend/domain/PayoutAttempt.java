@@ -0,0 +1,74 @@
+package com.atlasbrawler.backend.domain;
+
+import com.atlasbrawler.backend.domain.enums.PayoutStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One signed payout transaction. The row is committed, together with the rewards it
+ * settles moving to SUBMITTING, before the transaction is broadcast.
+ */
+@Entity
+@Table(name = "payout_attempts",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_payout_attempts_hash", columnNames = {"transaction_hash"})
+    },
+    indexes = {
+        @Index(name = "idx_payout_attempts_status", columnList = "status, id")
+    })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayoutAttempt {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payout_attempt_seq")
+    @SequenceGenerator(name = "payout_attempt_seq", sequenceName = IdSequences.PAYOUT_ATTEMPTS, allocationSize = IdSequences.ALLOCATION_SIZE)
+    private Long id;
+    
+    @Column(nullable = false, length = 66)
+    private String transactionHash;
+    
+    @Column(nullable = false, length = 42)
+    private String fromAddress;
+    
+    @Column(nullable = false, length = 42)
+    private String toAddress;
+    
+    @Column(nullable = false)
+    private Long nonce;
+    
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
+    
+    @Column(nullable = false)
+    private Integer rewardCount;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private PayoutStatus status = PayoutStatus.SUBMITTING;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column
+    private LocalDateTime resolvedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    public void markResolved(PayoutStatus outcome) {
+        this.status = outcome;
+        this.resolvedAt = LocalDateTime.now();
+    }
+}
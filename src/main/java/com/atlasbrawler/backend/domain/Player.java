@@ -13,7 +13,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "players")
+@Table(name = "players", indexes = {
+    @Index(name = "idx_players_updated_at", columnList = "updated_at, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,7 +23,8 @@ import java.util.List;
 public class Player {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "player_seq")
+    @SequenceGenerator(name = "player_seq", sequenceName = IdSequences.PLAYERS, allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
     
     @NotBlank(message = "Wallet address is required")
@@ -68,6 +71,11 @@ public class Player {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
     
+    // The default backfills existing rows when ddl-auto adds the column
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
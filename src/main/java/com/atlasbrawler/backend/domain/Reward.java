@@ -12,7 +12,11 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "rewards")
+@Table(name = "rewards", indexes = {
+    @Index(name = "idx_rewards_player_status_created", columnList = "player_id, status, created_at, id"),
+    @Index(name = "idx_rewards_transaction_hash", columnList = "transaction_hash"),
+    @Index(name = "idx_rewards_updated_at", columnList = "updated_at, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -20,7 +24,8 @@ import java.time.LocalDateTime;
 public class Reward {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reward_seq")
+    @SequenceGenerator(name = "reward_seq", sequenceName = IdSequences.REWARDS, allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -51,15 +56,53 @@ public class Reward {
     @Column
     private Integer score;
     
+    @Column
+    private Integer payoutAttempts;
+    
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
     @Column
     private LocalDateTime claimedAt;
     
+    @Column
+    private LocalDateTime updatedAt;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public void markAsQueued() {
+        this.status = RewardStatus.QUEUED;
+    }
+    
+    /**
+     * Attached to a payout that is signed but not yet known to be mined.
+     */
+    public void markAsSubmitting(String txHash) {
+        this.status = RewardStatus.SUBMITTING;
+        this.transactionHash = txHash;
+        recordPayoutAttempt();
+    }
+    
+    public void markAsRequeued() {
+        this.status = RewardStatus.QUEUED;
+        this.transactionHash = null;
+    }
+    
+    public void recordPayoutAttempt() {
+        this.payoutAttempts = getPayoutAttemptCount() + 1;
+    }
+    
+    public int getPayoutAttemptCount() {
+        return payoutAttempts != null ? payoutAttempts : 0;
     }
     
     public void markAsClaimed(String txHash) {
@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 public class SkaterCard {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "skater_card_seq")
+    @SequenceGenerator(name = "skater_card_seq", sequenceName = IdSequences.SKATER_CARDS, allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
     
     @OneToOne
@@ -12,7 +12,18 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions",
+    uniqueConstraints = {
+        // One row per player per on-chain tx; a batch payout shares its hash across players.
+        // Leading on transaction_hash, this also serves hash lookups.
+        @UniqueConstraint(name = "uk_transactions_hash_player", columnNames = {"transaction_hash", "player_id"})
+    },
+    indexes = {
+        @Index(name = "idx_transactions_player_status", columnList = "player_id, status"),
+        @Index(name = "idx_transactions_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_transactions_player_id", columnList = "player_id, id"),
+        @Index(name = "idx_transactions_updated_at", columnList = "updated_at, id")
+    })
 @Data
 @Builder
 @NoArgsConstructor
@@ -20,7 +31,8 @@ import java.time.LocalDateTime;
 public class Transaction {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = IdSequences.TRANSACTIONS, allocationSize = IdSequences.ALLOCATION_SIZE)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -63,9 +75,18 @@ public class Transaction {
     @Column
     private LocalDateTime confirmedAt;
     
+    @Column
+    private LocalDateTime updatedAt;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
     }
     
     public void markAsConfirmed(String txHash, Long blockNum) {
@@ -0,0 +1,8 @@
+package com.atlasbrawler.backend.domain.enums;
+
+public enum PayoutStatus {
+    SUBMITTING,
+    CONFIRMED,
+    REVERTED,
+    DROPPED
+}
@@ -2,6 +2,8 @@ package com.atlasbrawler.backend.domain.enums;
 
 public enum RewardStatus {
     PENDING,
+    QUEUED,
+    SUBMITTING,
     CLAIMED,
     FAILED,
     EXPIRED
@@ -6,5 +6,6 @@ public enum TransactionType {
     CASH_POOL_CONTRIBUTION,
     CASH_POOL_WITHDRAWAL,
     NFT_MINT,
-    TOKEN_TRANSFER
+    TOKEN_TRANSFER,
+    DEPOSIT
 }
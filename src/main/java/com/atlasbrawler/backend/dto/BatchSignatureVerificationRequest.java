@@ -0,0 +1,16 @@
+package com.atlasbrawler.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchSignatureVerificationRequest {
+    
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 10000, message = "At most 10000 items per batch")
+    private List<@Valid SignatureVerificationItem> items;
+}
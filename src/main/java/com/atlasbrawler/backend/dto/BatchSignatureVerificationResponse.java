@@ -0,0 +1,17 @@
+package com.atlasbrawler.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BatchSignatureVerificationResponse {
+    private List<Boolean> results;
+    private Integer total;
+    private Integer validCount;
+    private Integer parallelism;
+    private Long elapsedMillis;
+    private Double verificationsPerSecond;
+}
@@ -0,0 +1,16 @@
+package com.atlasbrawler.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkGameSessionRequest {
+    
+    @NotEmpty(message = "At least one session is required")
+    @Size(max = 1000, message = "At most 1000 sessions per request")
+    private List<@Valid GameSessionRequest> sessions;
+}
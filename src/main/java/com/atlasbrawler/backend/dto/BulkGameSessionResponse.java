@@ -0,0 +1,14 @@
+package com.atlasbrawler.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BulkGameSessionResponse {
+    private int processed;
+    private List<Long> rewardIds;
+    private List<String> unknownWallets;
+}
@@ -0,0 +1,27 @@
+package com.atlasbrawler.backend.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class CashPoolContributionRequest {
+    
+    @NotBlank(message = "Wallet address is required")
+    private String walletAddress;
+    
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.0001", message = "Amount must be positive")
+    private BigDecimal amount;
+    
+    @NotBlank(message = "Nonce is required")
+    @Size(max = 64, message = "Nonce must be at most 64 characters")
+    private String nonce;
+    
+    @NotBlank(message = "Signature is required")
+    private String signature;
+}
@@ -0,0 +1,16 @@
+package com.atlasbrawler.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class CashPoolContributionResponse {
+    private Long contributionId;
+    private Long cashPoolId;
+    private BigDecimal amount;
+    private BigDecimal poolTotal;
+    private boolean targetReached;
+}
@@ -0,0 +1,39 @@
+package com.atlasbrawler.backend.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class CashPoolCreateRequest {
+    
+    @NotBlank(message = "Wallet address is required")
+    private String walletAddress;
+    
+    @NotBlank(message = "Pool name is required")
+    @Size(max = 100, message = "Pool name must be at most 100 characters")
+    private String poolName;
+    
+    @Size(max = 500, message = "Description must be at most 500 characters")
+    private String description;
+    
+    @NotNull(message = "Target amount is required")
+    @DecimalMin(value = "0.0001", message = "Target amount must be positive")
+    private BigDecimal targetAmount;
+    
+    @Future(message = "Expiry must be in the future")
+    private LocalDateTime expiresAt;
+    
+    @NotBlank(message = "Nonce is required")
+    @Size(max = 64, message = "Nonce must be at most 64 characters")
+    private String nonce;
+    
+    @NotBlank(message = "Signature is required")
+    private String signature;
+}
@@ -0,0 +1,22 @@
+package com.atlasbrawler.backend.dto;
+
+import com.atlasbrawler.backend.domain.enums.CashPoolStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class CashPoolResponse {
+    private Long id;
+    private String poolName;
+    private String description;
+    private BigDecimal totalAmount;
+    private BigDecimal targetAmount;
+    private CashPoolStatus status;
+    private boolean targetReached;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+}
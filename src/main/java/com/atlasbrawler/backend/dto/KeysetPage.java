@@ -0,0 +1,18 @@
+package com.atlasbrawler.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Pass {@code nextCursor} back as
+ * {@code cursor} to fetch the following page; it is null on the last page.
+ */
+@Data
+@Builder
+public class KeysetPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
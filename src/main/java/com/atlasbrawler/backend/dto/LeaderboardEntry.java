@@ -0,0 +1,14 @@
+package com.atlasbrawler.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LeaderboardEntry {
+    private Integer rank;
+    private String walletAddress;
+    private String username;
+    private Integer highScore;
+    private Integer totalWins;
+}
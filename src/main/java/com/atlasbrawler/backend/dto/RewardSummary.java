@@ -0,0 +1,28 @@
+package com.atlasbrawler.backend.dto;
+
+import com.atlasbrawler.backend.domain.enums.RewardStatus;
+import com.atlasbrawler.backend.domain.enums.RewardType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a reward, selected column by column so listing never loads
+ * the entity or its player association.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+public class RewardSummary {
+    private Long id;
+    private RewardType rewardType;
+    private BigDecimal amount;
+    private RewardStatus status;
+    private String reason;
+    private Integer wavesSurvived;
+    private Integer score;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,17 @@
+package com.atlasbrawler.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class SignatureVerificationItem {
+    
+    @NotBlank(message = "Message is required")
+    private String message;
+    
+    @NotBlank(message = "Signature is required")
+    private String signature;
+    
+    @NotBlank(message = "Address is required")
+    private String address;
+}
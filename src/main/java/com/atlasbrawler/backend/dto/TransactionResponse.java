@@ -4,6 +4,7 @@ import lombok.Builder;
 import lombok.Data;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -13,4 +14,7 @@ public class TransactionResponse {
     private BigDecimal amount;
     private String fromAddress;
     private String toAddress;
+    private Long blockNumber;
+    private String transactionType;
+    private LocalDateTime createdAt;
 }
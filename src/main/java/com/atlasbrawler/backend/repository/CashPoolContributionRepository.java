@@ -12,4 +12,6 @@ public interface CashPoolContributionRepository extends JpaRepository<CashPoolCo
     List<CashPoolContribution> findByCashPoolId(Long cashPoolId);
     
     List<CashPoolContribution> findByContributorId(Long contributorId);
+    
+    boolean existsByContributorIdAndNonce(Long contributorId, String nonce);
 }
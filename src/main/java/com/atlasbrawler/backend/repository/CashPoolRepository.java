@@ -15,4 +15,6 @@ public interface CashPoolRepository extends JpaRepository<CashPool, Long> {
     List<CashPool> findByStatus(CashPoolStatus status);
     
     List<CashPool> findByStatusOrderByCreatedAtDesc(CashPoolStatus status);
+    
+    boolean existsByCreatorIdAndNonce(Long creatorId, String nonce);
 }
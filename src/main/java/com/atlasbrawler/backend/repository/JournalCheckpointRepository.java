@@ -0,0 +1,9 @@
+package com.atlasbrawler.backend.repository;
+
+import com.atlasbrawler.backend.domain.JournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, String> {
+}
@@ -0,0 +1,21 @@
+package com.atlasbrawler.backend.repository;
+
+import com.atlasbrawler.backend.domain.PayoutAttempt;
+import com.atlasbrawler.backend.domain.enums.PayoutStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PayoutAttemptRepository extends JpaRepository<PayoutAttempt, Long> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<PayoutAttempt> findForUpdateByTransactionHash(String transactionHash);
+    
+    List<PayoutAttempt> findByStatusAndIdGreaterThanOrderByIdAsc(PayoutStatus status, Long id, Pageable pageable);
+}
@@ -2,8 +2,15 @@ package com.atlasbrawler.backend.repository;
 
 import com.atlasbrawler.backend.domain.Player;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,7 +18,48 @@ public interface PlayerRepository extends JpaRepository<Player, Long> {
     
     Optional<Player> findByWalletAddress(String walletAddress);
     
+    Optional<Player> findByWalletAddressIgnoreCase(String walletAddress);
+    
+    /**
+     * Looks up players by lower-cased wallet addresses, whatever case they registered with.
+     */
+    @Query("select p from Player p where lower(p.walletAddress) in :walletAddresses")
+    List<Player> findByLowerCaseWalletAddressIn(@Param("walletAddresses") Collection<String> walletAddresses);
+    
     boolean existsByWalletAddress(String walletAddress);
     
     Optional<Player> findByUsername(String username);
+    
+    @Modifying
+    @Query("update Player p set p.cUSDBalance = p.cUSDBalance + :amount, p.version = p.version + 1, " +
+           "p.updatedAt = :now where p.walletAddress = :walletAddress")
+    int addCUSDBalance(@Param("walletAddress") String walletAddress,
+                       @Param("amount") BigDecimal amount,
+                       @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("update Player p set p.cUSDBalance = p.cUSDBalance - :amount, p.version = p.version + 1, " +
+           "p.updatedAt = :now where p.walletAddress = :walletAddress and p.cUSDBalance >= :amount")
+    int debitCUSDBalance(@Param("walletAddress") String walletAddress,
+                         @Param("amount") BigDecimal amount,
+                         @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("update Player p set p.softTokenBalance = p.softTokenBalance + :amount, p.version = p.version + 1, " +
+           "p.updatedAt = :now where p.walletAddress = :walletAddress")
+    int addSoftTokens(@Param("walletAddress") String walletAddress,
+                      @Param("amount") BigDecimal amount,
+                      @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("update Player p set p.totalGamesPlayed = p.totalGamesPlayed + :games, p.totalWins = p.totalWins + :wins, " +
+           "p.highScore = case when :score > p.highScore then :score else p.highScore end, " +
+           "p.softTokenBalance = p.softTokenBalance + :softTokens, p.version = p.version + 1, " +
+           "p.updatedAt = :now where p.id = :id")
+    int applySessions(@Param("id") Long id,
+                      @Param("games") int games,
+                      @Param("wins") int wins,
+                      @Param("score") int score,
+                      @Param("softTokens") BigDecimal softTokens,
+                      @Param("now") LocalDateTime now);
 }
@@ -3,9 +3,14 @@ package com.atlasbrawler.backend.repository;
 import com.atlasbrawler.backend.domain.Reward;
 import com.atlasbrawler.backend.domain.enums.RewardStatus;
 import com.atlasbrawler.backend.domain.enums.RewardType;
+import com.atlasbrawler.backend.dto.RewardSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -18,4 +23,28 @@ public interface RewardRepository extends JpaRepository<Reward, Long> {
     List<Reward> findByPlayerIdAndRewardType(Long playerId, RewardType rewardType);
     
     List<Reward> findByStatus(RewardStatus status);
+    
+    List<Reward> findByStatusAndTransactionHash(RewardStatus status, String transactionHash);
+    
+    @Query("select new com.atlasbrawler.backend.dto.RewardSummary(r.id, r.rewardType, r.amount, r.status, " +
+           "r.reason, r.wavesSurvived, r.score, r.createdAt) from Reward r " +
+           "where r.player.id = :playerId and r.status = :status " +
+           "order by r.createdAt desc, r.id desc")
+    List<RewardSummary> findSummaries(@Param("playerId") Long playerId,
+                                      @Param("status") RewardStatus status,
+                                      Pageable pageable);
+    
+    @Query("select new com.atlasbrawler.backend.dto.RewardSummary(r.id, r.rewardType, r.amount, r.status, " +
+           "r.reason, r.wavesSurvived, r.score, r.createdAt) from Reward r " +
+           "where r.player.id = :playerId and r.status = :status " +
+           "and (r.createdAt < :createdAt or (r.createdAt = :createdAt and r.id < :id)) " +
+           "order by r.createdAt desc, r.id desc")
+    List<RewardSummary> findSummariesBefore(@Param("playerId") Long playerId,
+                                            @Param("status") RewardStatus status,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+    
+    @Query("select r from Reward r join fetch r.player where r.status = :status order by r.id")
+    List<Reward> findWithPlayerByStatus(@Param("status") RewardStatus status, Pageable pageable);
 }
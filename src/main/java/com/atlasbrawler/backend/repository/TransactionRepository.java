@@ -3,9 +3,17 @@ package com.atlasbrawler.backend.repository;
 import com.atlasbrawler.backend.domain.Transaction;
 import com.atlasbrawler.backend.domain.enums.TransactionStatus;
 import com.atlasbrawler.backend.domain.enums.TransactionType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,7 +26,43 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     
     Optional<Transaction> findByTransactionHash(String transactionHash);
     
+    Optional<Transaction> findFirstByTransactionHashOrderByIdAsc(String transactionHash);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Transaction t join fetch t.player where t.transactionHash = :hash and t.transactionType = :type")
+    Optional<Transaction> findForUpdateByTransactionHashAndType(@Param("hash") String transactionHash,
+                                                                 @Param("type") TransactionType transactionType);
+    
     List<Transaction> findByTransactionType(TransactionType transactionType);
     
     List<Transaction> findByStatus(TransactionStatus status);
+    
+    List<Transaction> findByPlayerIdOrderByIdDesc(Long playerId, Pageable pageable);
+    
+    List<Transaction> findByPlayerIdAndIdLessThanOrderByIdDesc(Long playerId, Long id, Pageable pageable);
+    
+    @Query("select distinct t.transactionHash from Transaction t " +
+           "where t.status = :status and t.transactionHash is not null and t.createdAt > :after")
+    List<String> findHashesByStatusCreatedAfter(@Param("status") TransactionStatus status,
+                                                @Param("after") LocalDateTime after,
+                                                Pageable pageable);
+    
+    @Query("select distinct t.transactionHash from Transaction t " +
+           "where t.status = :status and t.transactionHash > :after and t.createdAt <= :before " +
+           "order by t.transactionHash")
+    List<String> findHashesByStatusCreatedBefore(@Param("status") TransactionStatus status,
+                                                 @Param("before") LocalDateTime before,
+                                                 @Param("after") String afterHash,
+                                                 Pageable pageable);
+    
+    @Modifying
+    @Query("update Transaction t set t.status = :status, t.blockNumber = :blockNumber, t.confirmedAt = :resolvedAt, " +
+           "t.updatedAt = :resolvedAt " +
+           "where t.transactionHash = :hash and t.status = com.atlasbrawler.backend.domain.enums.TransactionStatus.PENDING " +
+           "and t.transactionType in :types")
+    int resolvePending(@Param("hash") String transactionHash,
+                       @Param("status") TransactionStatus status,
+                       @Param("blockNumber") Long blockNumber,
+                       @Param("resolvedAt") LocalDateTime resolvedAt,
+                       @Param("types") Collection<TransactionType> types);
 }
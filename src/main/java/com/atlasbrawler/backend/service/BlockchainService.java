@@ -1,32 +1,58 @@
 package com.atlasbrawler.backend.service;
 
+import com.atlasbrawler.backend.domain.Player;
+import com.atlasbrawler.backend.domain.enums.PayoutStatus;
+import com.atlasbrawler.backend.domain.enums.TransactionStatus;
+import com.atlasbrawler.backend.domain.enums.TransactionType;
 import com.atlasbrawler.backend.dto.SignedTransactionRequest;
 import com.atlasbrawler.backend.dto.TransactionResponse;
+import com.atlasbrawler.backend.repository.PlayerRepository;
+import com.atlasbrawler.backend.repository.TransactionRepository;
 import com.atlasbrawler.backend.util.BlockchainUtil;
-import com.atlasbrawler.backend.service.PlayerService;
+import com.atlasbrawler.backend.util.JsonRpcBatcher;
+import com.atlasbrawler.backend.util.NonceManager;
+import com.atlasbrawler.backend.util.WalletBalanceCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.web3j.crypto.Credentials;
 import org.web3j.crypto.Sign;
 import org.web3j.crypto.Keys;
+import org.web3j.crypto.RawTransaction;
 import org.web3j.crypto.TransactionEncoder;
 import org.web3j.crypto.SignedRawTransaction;
 import org.web3j.crypto.Hash;
 import org.web3j.crypto.ECDSASignature;
+import org.web3j.abi.FunctionEncoder;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.DynamicArray;
+import org.web3j.abi.datatypes.Function;
+import org.web3j.abi.datatypes.generated.Uint256;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthEstimateGas;
 import org.web3j.protocol.core.methods.response.EthSendTransaction;
-import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.tx.RawTransactionManager;
 import org.web3j.tx.Transfer;
 import org.web3j.tx.gas.DefaultGasProvider;
 import org.web3j.utils.Convert;
 import org.web3j.utils.Numeric;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 @Service
 public class BlockchainService {
@@ -36,65 +62,282 @@ public class BlockchainService {
     private final Web3j web3j;
     private final Credentials credentials;
     private final BlockchainUtil blockchainUtil;
-    private final PlayerService playerService;
+    private final DepositService depositService;
+    private final TransactionReceiptTracker receiptTracker;
+    private final JsonRpcBatcher rpcBatcher;
+    private final NonceManager nonceManager;
+    private final WalletBalanceCache balanceCache;
+    private final TransactionRepository transactionRepository;
+    private final PlayerRepository playerRepository;
+    private final TransactionLedgerService ledgerService;
+    private final Map<String, CompletableFuture<TransactionResponse>> inFlightSubmissions = new ConcurrentHashMap<>();
 
     @Value("${celo.contract.reward.address:}")
     private String rewardContractAddress;
 
+    @Value("${celo.chain.id}")
+    private long chainId;
+
     public BlockchainService(Web3j web3j,
     Credentials credentials,
                         BlockchainUtil blockchainUtil,
-                        PlayerService playerService) {
+                        DepositService depositService,
+                        TransactionReceiptTracker receiptTracker,
+                        JsonRpcBatcher rpcBatcher,
+                        NonceManager nonceManager,
+                        WalletBalanceCache balanceCache,
+                        TransactionRepository transactionRepository,
+                        PlayerRepository playerRepository,
+                        TransactionLedgerService ledgerService) {
     this.web3j = web3j;
         this.credentials = credentials;
         this.blockchainUtil = blockchainUtil;
-        this.playerService = playerService;
+        this.depositService = depositService;
+        this.receiptTracker = receiptTracker;
+        this.rpcBatcher = rpcBatcher;
+        this.nonceManager = nonceManager;
+        this.balanceCache = balanceCache;
+        this.transactionRepository = transactionRepository;
+        this.playerRepository = playerRepository;
+        this.ledgerService = ledgerService;
+    }
+    
+    /**
+     * A payout signed with a reserved nonce but not broadcast yet. Its hash is known
+     * before anything goes on chain, so it can be recorded first.
+     */
+    public record PreparedPayout(String transactionHash, BigInteger nonce, String toAddress,
+                                 BigDecimal amount, String signedTransaction) {
     }
     
-    public String transferReward(String toAddress, BigDecimal amountInCUSD) {
+    /**
+     * Signs a plain transfer from the hot wallet. Nonces come from the
+     * {@link NonceManager}, so several payouts can be signed back to back.
+     */
+    public PreparedPayout prepareTransfer(String toAddress, BigDecimal amountInCUSD) {
         try {
-            logger.info("Transferring {} cUSD to {}", amountInCUSD, toAddress);
+            logger.info("Preparing transfer of {} cUSD to {}", amountInCUSD, toAddress);
+            return signPayout(toAddress, blockchainUtil.etherToWei(amountInCUSD), Transfer.GAS_LIMIT, "");
+        } catch (Exception e) {
+            logger.error("Failed to prepare transfer to {}", toAddress, e);
+            throw new RuntimeException("Blockchain transfer failed", e);
+        }
+    }
+    
+    public String getHotWalletAddress() {
+        return credentials.getAddress();
+    }
+    
+    public boolean hasBatchTransferContract() {
+        return rewardContractAddress != null && !rewardContractAddress.isBlank();
+    }
+    
+    /**
+     * Signs one call to the reward contract's {@code batchTransfer(address[],uint256[])}
+     * paying several recipients, with the summed value sent along.
+     */
+    public PreparedPayout prepareBatchTransfer(List<String> recipients, List<BigDecimal> amountsInCUSD) {
+        if (!hasBatchTransferContract()) {
+            throw new IllegalStateException("Reward contract address not configured");
+        }
+        
+        try {
+            List<Address> addresses = new ArrayList<>(recipients.size());
+            List<Uint256> values = new ArrayList<>(amountsInCUSD.size());
+            BigInteger total = BigInteger.ZERO;
+            for (int i = 0; i < recipients.size(); i++) {
+                BigInteger wei = blockchainUtil.etherToWei(amountsInCUSD.get(i));
+                addresses.add(new Address(recipients.get(i)));
+                values.add(new Uint256(wei));
+                total = total.add(wei);
+            }
             
-            TransactionReceipt receipt = Transfer.sendFunds(
-                web3j,
-                credentials,
-                toAddress,
-                amountInCUSD,
-                Convert.Unit.ETHER
-            ).send();
+            Function function = new Function(
+                "batchTransfer",
+                List.of(new DynamicArray<>(Address.class, addresses), new DynamicArray<>(Uint256.class, values)),
+                Collections.emptyList()
+            );
+            String data = FunctionEncoder.encode(function);
             
-            String txHash = receipt.getTransactionHash();
-            logger.info("Transfer successful. TX: {}", txHash);
+            EthEstimateGas estimate = rpcBatcher.submit(web3j.ethEstimateGas(
+                Transaction.createFunctionCallTransaction(
+                    credentials.getAddress(), null, null, null, rewardContractAddress, total, data)
+            )).join();
+            if (estimate.hasError()) {
+                throw new RuntimeException("Gas estimation failed: " + estimate.getError().getMessage());
+            }
+            BigInteger gasLimit = estimate.getAmountUsed().multiply(BigInteger.valueOf(12)).divide(BigInteger.TEN);
             
-            return txHash;
+            logger.info("Preparing batch transfer to {} recipients via {}", recipients.size(), rewardContractAddress);
+            return signPayout(rewardContractAddress, total, gasLimit, data);
         } catch (Exception e) {
-            logger.error("Failed to transfer reward to {}", toAddress, e);
-            throw new RuntimeException("Blockchain transfer failed", e);
+            logger.error("Failed to prepare batch transfer to {} recipients", recipients.size(), e);
+            throw new RuntimeException("Blockchain batch transfer failed", e);
         }
     }
     
+    private PreparedPayout signPayout(String toAddress, BigInteger valueInWei, BigInteger gasLimit, String data) {
+        BigInteger gasPrice = rpcBatcher.submit(web3j.ethGasPrice()).join().getGasPrice();
+        BigInteger nonce = nonceManager.reserve();
+        
+        RawTransaction rawTx = RawTransaction.createTransaction(nonce, gasPrice, gasLimit, toAddress, valueInWei, data);
+        String signedTx = Numeric.toHexString(TransactionEncoder.signMessage(rawTx, chainId, credentials));
+        return new PreparedPayout(Hash.sha3(signedTx).toLowerCase(), nonce, toAddress,
+            blockchainUtil.weiToEther(valueInWei), signedTx);
+    }
+    
+    /**
+     * Broadcasts a prepared payout and hands it to the receipt tracker, which reports
+     * the outcome to {@code onResolved}. Returns false when the node rejected it; the
+     * nonce counter is then marked for a resync, and payouts signed after it will not
+     * be mined either. A send whose reply was lost is tracked anyway, since the node may have
+     * accepted it.
+     */
+    public boolean broadcastPayout(PreparedPayout payout, Consumer<PayoutStatus> onResolved) {
+        try {
+            EthSendTransaction sent = rpcBatcher.submit(web3j.ethSendRawTransaction(payout.signedTransaction())).join();
+            if (sent.hasError()) {
+                logger.error("Payout {} rejected: {}", payout.transactionHash(), sent.getError().getMessage());
+                nonceManager.requestResync();
+                return false;
+            }
+            logger.info("Payout broadcast. TX: {}", payout.transactionHash());
+        } catch (RuntimeException e) {
+            logger.warn("Broadcast of payout {} got no reply, tracking it anyway", payout.transactionHash(), e);
+        }
+        trackPayout(payout.transactionHash(), payout.toAddress(), payout.amount(), onResolved);
+        return true;
+    }
+    
+    /**
+     * Picks up a payout recorded by an earlier run that the tracker no longer knows.
+     */
+    public void resumePayout(String txHash, String toAddress, BigDecimal amount, Consumer<PayoutStatus> onResolved) {
+        if (receiptTracker.find(txHash).isEmpty()) {
+            trackPayout(txHash, toAddress, amount, onResolved);
+        }
+    }
+    
+    /**
+     * Lets the nonces of payouts that were signed but never recorded be handed out again,
+     * from the next payout run on.
+     */
+    public void releaseReservedNonces() {
+        nonceManager.requestResync();
+    }
+
+    /**
+     * Applies a pending nonce resync. The payout run calls this before reserving, while
+     * every nonce it reserved earlier has been broadcast.
+     */
+    public void resyncNoncesIfRequested() {
+        nonceManager.resyncIfRequested();
+    }
+
+    private void trackPayout(String txHash, String toAddress, BigDecimal amount, Consumer<PayoutStatus> onResolved) {
+        receiptTracker.track(txHash, credentials.getAddress(), toAddress, amount,
+            tracked -> onPayoutResolved(tracked, onResolved));
+    }
+
+    /**
+     * A mined payout is reported as confirmed or reverted; either way its nonce is used.
+     * One without a receipt by the timeout is looked up on the node: while the node
+     * still holds it, tracking starts over, and once it is gone it is reported dropped
+     * and the nonce counter is marked for a resync, so the gap does not hold back later
+     * payouts. This runs on an RPC callback thread, possibly in the middle of a payout
+     * run, so the resync itself waits for the start of the next run.
+     */
+    private void onPayoutResolved(TransactionReceiptTracker.TrackedTransaction tracked,
+                                  Consumer<PayoutStatus> onResolved) {
+        if (!tracked.isTimedOut()) {
+            onResolved.accept(tracked.getStatus() == TransactionStatus.CONFIRMED
+                ? PayoutStatus.CONFIRMED : PayoutStatus.REVERTED);
+            return;
+        }
+
+        String txHash = tracked.getTransactionHash();
+        rpcBatcher.submit(web3j.ethGetTransactionByHash(txHash)).whenComplete((response, error) -> {
+            if (error != null || response.hasError() || response.getTransaction().isPresent()) {
+                // Still known to the node, or unknown either way: keep watching rather than pay twice
+                logger.warn("Payout {} has no receipt yet, tracking it again", txHash);
+                trackPayout(txHash, tracked.getToAddress(), tracked.getAmount(), onResolved);
+                return;
+            }
+            logger.warn("Payout {} was dropped by the node", txHash);
+            nonceManager.requestResync();
+            onResolved.accept(PayoutStatus.DROPPED);
+        });
+    }
+    
+    /**
+     * Balance at the current chain head, served from {@link WalletBalanceCache}.
+     * Fails instead of reporting zero when the node cannot be reached.
+     */
     public BigDecimal getBalance(String address) {
         try {
-            BigDecimal balance = blockchainUtil.weiToEther(
-                web3j.ethGetBalance(address, org.web3j.protocol.core.DefaultBlockParameterName.LATEST)
-                    .send()
-                    .getBalance()
-            );
-            
+            BigDecimal balance = balanceCache.getBalance(address).join();
             logger.debug("Balance for {}: {} cUSD", address, balance);
             return balance;
-            } catch (Exception e) {
+        } catch (Exception e) {
             logger.error("Failed to get balance for {}", address, e);
-            return BigDecimal.ZERO;
-            }
-            }
+            throw new RuntimeException("Balance lookup failed", e);
+        }
+    }
+
+    public Map<String, BigDecimal> getBalances(List<String> addresses) {
+        try {
+            return balanceCache.getBalances(addresses).join();
+        } catch (Exception e) {
+            logger.error("Failed to get balances for {} addresses", addresses.size(), e);
+            throw new RuntimeException("Balance lookup failed", e);
+        }
+    }
 
     /**
      * Processes a signed transaction from MiniPay/WalletConnect.
-     * Verifies the signer matches the player's wallet address,
-     * sends the transaction to the network, and returns the receipt.
+     * Verifies the signer matches the player's wallet address, broadcasts the
+     * transaction and hands the hash to the receipt tracker. Returns straight away
+     * with a PENDING status; deposits to the hot wallet are credited once confirmed.
+     *
+     * <p>Submissions are keyed by the hash of the raw bytes, computed locally. A retry
+     * that arrives while the first submission is in flight joins its result, and
+     * one arriving later is answered from the tracker or the stored
+     * {@link com.atlasbrawler.backend.domain.Transaction} row without another broadcast.
      */
     public TransactionResponse processSignedTransaction(SignedTransactionRequest request) {
+        String txHash = Hash.sha3(Numeric.prependHexPrefix(request.getSignedTransaction())).toLowerCase();
+
+        Optional<TransactionResponse> known = findKnownTransaction(txHash);
+        if (known.isPresent()) {
+            logger.info("Duplicate submission of TX {}, returning recorded state", txHash);
+            return known.get();
+        }
+
+        CompletableFuture<TransactionResponse> submission = new CompletableFuture<>();
+        CompletableFuture<TransactionResponse> inFlight = inFlightSubmissions.putIfAbsent(txHash, submission);
+        if (inFlight != null) {
+            logger.info("TX {} is already being submitted, joining it", txHash);
+            try {
+                return inFlight.join();
+            } catch (CompletionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+
+        try {
+            TransactionResponse response = submitSignedTransaction(request, txHash);
+            submission.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            submission.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightSubmissions.remove(txHash, submission);
+        }
+    }
+
+    private TransactionResponse submitSignedTransaction(SignedTransactionRequest request, String txHash) {
+        com.atlasbrawler.backend.domain.Transaction record = null;
         try {
             logger.info("Processing signed transaction for wallet: {}", request.getWalletAddress());
 
@@ -108,91 +351,167 @@ public class BlockchainService {
                 throw new IllegalArgumentException("Transaction is not signed");
             }
 
-            SignedRawTransaction signedTx = (SignedRawTransaction) rawTx;
-            Sign.SignatureData signatureData = signedTx.getSignatureData();
+            // Recover signer address from signature (CRITICAL for security)
+            String recoveredAddress = recoverSigner((SignedRawTransaction) rawTx);
 
-            // Send the signed transaction
-            EthSendTransaction ethSendTransaction = web3j.ethSendRawTransaction(request.getSignedTransaction()).send();
-            if (ethSendTransaction.hasError()) {
-                throw new RuntimeException("Transaction failed: " + ethSendTransaction.getError().getMessage());
+            if (!recoveredAddress.equalsIgnoreCase(request.getWalletAddress())) {
+                throw new SecurityException("Signature verification failed: signer does not match wallet");
             }
 
-            String txHash = ethSendTransaction.getTransactionHash();
-            logger.info("Transaction sent. TX: {}", txHash);
-
-            // Wait for receipt (optional, but good for confirmation)
-            TransactionReceipt receipt = null;
-            int attempts = 0;
-            while (receipt == null && attempts < 30) { // Wait up to 30 seconds
-                try {
-                    Thread.sleep(1000);
-                    receipt = web3j.ethGetTransactionReceipt(txHash).send().getTransactionReceipt().orElse(null);
-                    attempts++;
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
+            BigDecimal amount = blockchainUtil.weiToEther(rawTx.getValue());
+            String toAddress = rawTx.getTo();
+            String walletAddress = request.getWalletAddress();
+            boolean deposit = toAddress != null && toAddress.equalsIgnoreCase(credentials.getAddress());
+
+            try {
+                record = recordPending(txHash, walletAddress, toAddress, amount, deposit);
+            } catch (DataIntegrityViolationException e) {
+                // Another instance recorded the same hash first and owns the broadcast
+                return findKnownTransaction(txHash).orElseThrow(() -> e);
+            }
+
+            // Send the signed transaction. Only an explicit rejection fails the row; a send
+            // whose reply was lost stays PENDING and is tracked, since the node may have accepted it.
+            try {
+                EthSendTransaction ethSendTransaction = rpcBatcher.submit(web3j.ethSendRawTransaction(request.getSignedTransaction())).join();
+                if (ethSendTransaction.hasError()) {
+                    throw new IllegalStateException("Transaction failed: " + ethSendTransaction.getError().getMessage());
                 }
+                logger.info("Transaction sent. TX: {}", txHash);
+            } catch (CompletionException e) {
+                logger.warn("Broadcast of TX {} got no reply, tracking it anyway", txHash, e);
             }
 
-            if (receipt == null) {
-                logger.warn("Transaction receipt not found within timeout for TX: {}", txHash);
+            Consumer<TransactionReceiptTracker.TrackedTransaction> onResolved = null;
+            if (deposit) {
+                onResolved = resolved -> {
+                    if (resolved.getStatus() != TransactionStatus.CONFIRMED) {
+                        return;
+                    }
+                    try {
+                        depositService.creditDeposit(txHash, walletAddress, toAddress, amount,
+                                resolved.getBlockNumber(), "MiniPay deposit");
+                    } catch (DataIntegrityViolationException e) {
+                        logger.debug("Deposit {} was already credited by the indexer", txHash);
+                    }
+                };
             }
 
-            // Recover signer address from signature (CRITICAL for security)
-            byte[] encoded = TransactionEncoder.encode(rawTx);
-            byte[] messageHash = Hash.sha3(encoded);
+            TransactionReceiptTracker.TrackedTransaction tracked = receiptTracker.track(
+                    txHash, recoveredAddress, toAddress, amount, onResolved);
 
-            // Calculate header from v (byte[])
-            int header = 0;
-            for (byte b : signatureData.getV()) {
-                header = (header << 8) + (b & 0xFF);
-            }
+            return toResponse(tracked);
 
-            int recId;
-            if (header == 27 || header == 28) {
-                recId = header - 27;
-            } else if (header >= 35) {
-                recId = (header - 35) % 2;
-            } else {
-                throw new IllegalArgumentException("Invalid v value in signature");
+        } catch (Exception e) {
+            if (record != null) {
+                record.markAsFailed();
+                transactionRepository.save(record);
             }
+            logger.error("Failed to process signed transaction for {}", request.getWalletAddress(), e);
+            throw new RuntimeException("Failed to process signed transaction", e);
+        }
+    }
 
-            ECDSASignature sig = new ECDSASignature(
-                    new BigInteger(1, signatureData.getR()),
-                    new BigInteger(1, signatureData.getS())
-            );
+    /**
+     * Live state from the receipt tracker, falling back to the stored row. Rows whose
+     * broadcast failed are not returned, so the same bytes can be submitted again.
+     */
+    private Optional<TransactionResponse> findKnownTransaction(String txHash) {
+        Optional<TransactionResponse> tracked = receiptTracker.find(txHash).map(this::toResponse);
+        if (tracked.isPresent()) {
+            return tracked;
+        }
+        return transactionRepository.findFirstByTransactionHashOrderByIdAsc(txHash)
+                .filter(transaction -> transaction.getStatus() != TransactionStatus.FAILED)
+                .map(ledgerService::toResponse);
+    }
 
-            BigInteger key = Sign.recoverFromSignature(recId, sig, messageHash);
-            if (key == null) {
-                throw new RuntimeException("Could not recover public key from signature");
+    /**
+     * Stores the submission as PENDING before it is broadcast, reusing a row left
+     * FAILED by an earlier attempt. Senders that are not registered players are only
+     * deduplicated in memory, since a row needs a player.
+     */
+    private com.atlasbrawler.backend.domain.Transaction recordPending(String txHash, String walletAddress,
+                                                                      String toAddress, BigDecimal amount,
+                                                                      boolean deposit) {
+        Optional<com.atlasbrawler.backend.domain.Transaction> existing = transactionRepository.findFirstByTransactionHashOrderByIdAsc(txHash);
+        if (existing.isPresent()) {
+            com.atlasbrawler.backend.domain.Transaction retry = existing.get();
+            if (retry.getStatus() != TransactionStatus.FAILED) {
+                throw new DataIntegrityViolationException("Transaction " + txHash + " is already recorded");
             }
+            retry.setStatus(TransactionStatus.PENDING);
+            retry.setConfirmedAt(null);
+            return transactionRepository.save(retry);
+        }
 
-            String recoveredAddress = "0x" + Keys.getAddress(key);
+        Player player = playerRepository.findByWalletAddressIgnoreCase(walletAddress).orElse(null);
+        if (player == null) {
+            return null;
+        }
+        return transactionRepository.saveAndFlush(com.atlasbrawler.backend.domain.Transaction.builder()
+                .player(player)
+                .transactionType(deposit ? TransactionType.DEPOSIT : TransactionType.TOKEN_TRANSFER)
+                .amount(amount)
+                .transactionHash(txHash)
+                .fromAddress(walletAddress)
+                .toAddress(toAddress)
+                .description(deposit ? "MiniPay deposit" : "MiniPay transfer")
+                .build());
+    }
 
-            if (!recoveredAddress.equalsIgnoreCase(request.getWalletAddress())) {
-                throw new SecurityException("Signature verification failed: signer does not match wallet");
-            }
+    /**
+     * Returns the latest known state of a transaction submitted through
+     * {@link #processSignedTransaction(SignedTransactionRequest)}.
+     */
+    public TransactionResponse getTransactionStatus(String transactionHash) {
+        return receiptTracker.find(transactionHash)
+                .map(this::toResponse)
+                .or(() -> transactionRepository.findFirstByTransactionHashOrderByIdAsc(transactionHash.toLowerCase()).map(ledgerService::toResponse))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Transaction not found"));
+    }
 
-            BigDecimal amount = blockchainUtil.weiToEther(rawTx.getValue());
-            String toAddress = rawTx.getTo();
+    static String recoverSigner(SignedRawTransaction signedTx) throws Exception {
+        Sign.SignatureData signatureData = signedTx.getSignatureData();
+        byte[] encoded = TransactionEncoder.encode(signedTx);
+        byte[] messageHash = Hash.sha3(encoded);
 
-            if (receipt != null && receipt.isStatusOK() && toAddress != null &&
-                toAddress.equalsIgnoreCase(credentials.getAddress())) {
-                playerService.addCUSDBalance(request.getWalletAddress(), amount);
-                logger.info("Deposited {} cUSD from {}", amount, request.getWalletAddress());
-            }
+        // Calculate header from v (byte[])
+        int header = 0;
+        for (byte b : signatureData.getV()) {
+            header = (header << 8) + (b & 0xFF);
+        }
 
-            return TransactionResponse.builder()
-                    .transactionHash(txHash)
-                    .status(receipt != null && receipt.isStatusOK() ? "CONFIRMED" : "PENDING")
-                    .amount(amount)
-                    .fromAddress(recoveredAddress)
-                    .toAddress(toAddress != null ? toAddress : "contract-creation")
-                    .build();
+        int recId;
+        if (header == 27 || header == 28) {
+            recId = header - 27;
+        } else if (header >= 35) {
+            recId = (header - 35) % 2;
+        } else {
+            throw new IllegalArgumentException("Invalid v value in signature");
+        }
 
-        } catch (Exception e) {
-            logger.error("Failed to process signed transaction for {}", request.getWalletAddress(), e);
-            throw new RuntimeException("Failed to process signed transaction", e);
+        ECDSASignature sig = new ECDSASignature(
+                new BigInteger(1, signatureData.getR()),
+                new BigInteger(1, signatureData.getS())
+        );
+
+        BigInteger key = Sign.recoverFromSignature(recId, sig, messageHash);
+        if (key == null) {
+            throw new RuntimeException("Could not recover public key from signature");
         }
+
+        return "0x" + Keys.getAddress(key);
+    }
+
+    private TransactionResponse toResponse(TransactionReceiptTracker.TrackedTransaction tracked) {
+        return TransactionResponse.builder()
+                .transactionHash(tracked.getTransactionHash())
+                .status(tracked.getStatus().name())
+                .amount(tracked.getAmount())
+                .fromAddress(tracked.getFromAddress())
+                .toAddress(tracked.getToAddress() != null ? tracked.getToAddress() : "contract-creation")
+                .blockNumber(tracked.getBlockNumber())
+                .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,303 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.domain.Player;
+import com.atlasbrawler.backend.domain.Reward;
+import com.atlasbrawler.backend.domain.enums.CashPoolStatus;
+import com.atlasbrawler.backend.domain.enums.RewardType;
+import com.atlasbrawler.backend.factory.RewardFactory;
+import com.atlasbrawler.backend.util.RewardMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Closes cash pools that have expired or reached their target. Due pools are found
+ * through {@code idx_cash_pools_status_expires} and settled in chunks, one
+ * transaction per chunk: the chunk's pools are locked, their totals are summed from
+ * the contribution rows, and the pools are flipped to COMPLETED or EXPIRED.
+ *
+ * <ul>
+ *   <li>a pool whose contributions reach its target is COMPLETED and every contributor
+ *   gets a PENDING CASH_POOL reward for their share, which they claim like any other
+ *   reward;</li>
+ *   <li>a pool that expires short of its target is EXPIRED and every contributor gets
+ *   their own contributions back into the internal cUSD balance they were debited
+ *   from.</li>
+ * </ul>
+ * Shares are summed by the database and streamed with a fetch size, and rewards and
+ * credits are written in JDBC batches, so memory stays bounded whatever the number of
+ * contributors.
+ *
+ * <p>The settlement SQL uses PostgreSQL arrays, row locks and sequences, so the
+ * processor stays idle on any other database.
+ */
+@Service
+public class CashPoolLifecycleProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(CashPoolLifecycleProcessor.class);
+    private static final String DUE_SQL =
+        "SELECT id FROM cash_pools " +
+        "WHERE status = 'ACTIVE' AND (expires_at <= ? OR total_amount >= target_amount) AND id > ? " +
+        "ORDER BY id LIMIT ?";
+    // Waits for in-flight contributions, which hold FOR SHARE, and keeps new ones out until commit
+    private static final String LOCK_SQL =
+        "SELECT id, target_amount, expires_at FROM cash_pools " +
+        "WHERE id = ANY(?) AND status = 'ACTIVE' FOR UPDATE";
+    private static final String TOTALS_SQL =
+        "SELECT cash_pool_id, SUM(amount) AS total FROM cash_pool_contributions " +
+        "WHERE cash_pool_id = ANY(?) GROUP BY cash_pool_id";
+    private static final String PAYOUT_SHARES_SQL =
+        "SELECT contributor_id, SUM(amount) AS share FROM cash_pool_contributions " +
+        "WHERE cash_pool_id = ANY(?) GROUP BY cash_pool_id, contributor_id";
+    private static final String REFUND_SHARES_SQL =
+        "SELECT p.wallet_address, SUM(c.amount) AS share FROM cash_pool_contributions c " +
+        "JOIN players p ON p.id = c.contributor_id " +
+        "WHERE c.cash_pool_id = ANY(?) GROUP BY p.wallet_address";
+    private static final String INSERT_REWARD_SQL =
+        "INSERT INTO rewards (id, player_id, reward_type, amount, status, reason, created_at) " +
+        "VALUES (nextval('rewards_seq'), ?, ?, ?, ?, ?, ?)";
+    private static final String CLOSE_SQL =
+        "UPDATE cash_pools SET status = ?, total_amount = ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CashPoolService cashPoolService;
+    private final PlayerService playerService;
+    private final RewardFactory rewardFactory;
+    private final RewardMetrics rewardMetrics;
+    private boolean postgres;
+
+    @Value("${cash-pool.lifecycle.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${cash-pool.lifecycle.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${cash-pool.lifecycle.batch-size:500}")
+    private int batchSize;
+
+    public CashPoolLifecycleProcessor(JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      CashPoolService cashPoolService,
+                                      PlayerService playerService,
+                                      RewardFactory rewardFactory,
+                                      RewardMetrics rewardMetrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.cashPoolService = cashPoolService;
+        this.playerService = playerService;
+        this.rewardFactory = rewardFactory;
+        this.rewardMetrics = rewardMetrics;
+    }
+
+    @PostConstruct
+    void detectDatabase() {
+        String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+            DatabaseMetaData::getDatabaseProductName);
+        postgres = "PostgreSQL".equals(product);
+        if (!postgres) {
+            logger.warn("Cash pool settlement needs PostgreSQL but the database is {}; pools will not be settled",
+                product);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cash-pool.lifecycle.interval-ms:30000}")
+    public void settleDuePools() {
+        if (!postgres) {
+            return;
+        }
+        // Stored totals must include buffered contributions before target-reached pools are picked
+        cashPoolService.flush();
+
+        LocalDateTime now = LocalDateTime.now();
+        long afterId = 0;
+        int settled = 0;
+        int failed = 0;
+        while (true) {
+            List<Long> due = jdbcTemplate.queryForList(DUE_SQL, Long.class, Timestamp.valueOf(now), afterId, chunkSize);
+            if (due.isEmpty()) {
+                break;
+            }
+            afterId = due.get(due.size() - 1);
+
+            try {
+                List<Long> closed = transactionTemplate.execute(status -> settle(due));
+                cashPoolService.release(closed);
+                settled += closed.size();
+            } catch (RuntimeException e) {
+                // The keyset cursor has moved past the chunk; it is retried on the next pass
+                logger.error("Settling {} cash pools up to id {} failed", due.size(), afterId, e);
+                failed += due.size();
+            }
+
+            if (due.size() < chunkSize) {
+                break;
+            }
+        }
+
+        if (settled > 0 || failed > 0) {
+            logger.info("Settled {} cash pools ({} failed)", settled, failed);
+        }
+    }
+
+    private List<Long> settle(List<Long> due) {
+        List<LockedPool> locked = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LOCK_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", due.toArray()));
+            return ps;
+        }, (rs, rowNum) -> {
+            Timestamp expiresAt = rs.getTimestamp("expires_at");
+            return new LockedPool(rs.getLong("id"), rs.getBigDecimal("target_amount"),
+                expiresAt != null ? expiresAt.toLocalDateTime() : null);
+        });
+        if (locked.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, BigDecimal> totals = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(TOTALS_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", locked.stream().map(LockedPool::id).toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> totals.put(rs.getLong("cash_pool_id"), rs.getBigDecimal("total")));
+
+        LocalDateTime settledAt = LocalDateTime.now();
+        Map<Long, CashPoolStatus> outcomes = new HashMap<>();
+        List<Long> closing = new ArrayList<>();
+        List<Long> completed = new ArrayList<>();
+        List<Long> expired = new ArrayList<>();
+        for (LockedPool pool : locked) {
+            BigDecimal total = totals.getOrDefault(pool.id(), BigDecimal.ZERO);
+            if (total.signum() > 0 && total.compareTo(pool.targetAmount()) >= 0) {
+                outcomes.put(pool.id(), CashPoolStatus.COMPLETED);
+                completed.add(pool.id());
+            } else if (pool.expiresAt() != null && !pool.expiresAt().isAfter(settledAt)) {
+                outcomes.put(pool.id(), CashPoolStatus.EXPIRED);
+                expired.add(pool.id());
+            } else {
+                // The stored total ran ahead of the committed contributions; not due yet
+                continue;
+            }
+            closing.add(pool.id());
+        }
+        Timestamp now = Timestamp.valueOf(settledAt);
+        payOut(completed, now);
+        refund(expired);
+
+        jdbcTemplate.batchUpdate(CLOSE_SQL, closing, closing.size(), (ps, poolId) -> {
+            ps.setString(1, outcomes.get(poolId).name());
+            ps.setBigDecimal(2, totals.getOrDefault(poolId, BigDecimal.ZERO));
+            ps.setTimestamp(3, now);
+            ps.setLong(4, poolId);
+        });
+        logger.debug("Closed {} cash pools: {} completed, {} expired",
+            closing.size(), completed.size(), expired.size());
+        return closing;
+    }
+
+    /**
+     * Streams each contributor's summed contributions per completed pool and inserts
+     * one CASH_POOL reward per share, in batches of {@code cash-pool.lifecycle.batch-size}.
+     */
+    private void payOut(List<Long> completed, Timestamp now) {
+        if (completed.isEmpty()) {
+            return;
+        }
+        List<Reward> batch = new ArrayList<>(batchSize);
+        int[] created = {0};
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(PAYOUT_SHARES_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", completed.toArray()));
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Player contributor = Player.builder().id(rs.getLong("contributor_id")).build();
+            batch.add(rewardFactory.createCashPoolReward(contributor, rs.getBigDecimal("share")));
+            if (batch.size() >= batchSize) {
+                created[0] += insertRewards(batch, now);
+                batch.clear();
+            }
+        });
+        created[0] += insertRewards(batch, now);
+
+        int count = created[0];
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rewardMetrics.created(RewardType.CASH_POOL, count);
+            }
+        });
+    }
+
+    private int insertRewards(List<Reward> rewards, Timestamp now) {
+        if (rewards.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_REWARD_SQL, rewards, rewards.size(), (ps, reward) -> {
+            ps.setLong(1, reward.getPlayer().getId());
+            ps.setString(2, reward.getRewardType().name());
+            ps.setBigDecimal(3, reward.getAmount());
+            ps.setString(4, reward.getStatus().name());
+            ps.setString(5, reward.getReason());
+            ps.setTimestamp(6, now);
+        });
+        return rewards.size();
+    }
+
+    /**
+     * Streams each contributor's summed contributions to the expired pools and
+     * credits them back in batches of {@code cash-pool.lifecycle.batch-size}.
+     */
+    private void refund(List<Long> expired) {
+        if (expired.isEmpty()) {
+            return;
+        }
+        Map<String, BigDecimal> batch = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(REFUND_SHARES_SQL);
+            ps.setArray(1, con.createArrayOf("bigint", expired.toArray()));
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            batch.put(rs.getString("wallet_address"), rs.getBigDecimal("share"));
+            if (batch.size() >= batchSize) {
+                credit(batch);
+                batch.clear();
+            }
+        });
+        credit(batch);
+    }
+
+    private void credit(Map<String, BigDecimal> credits) {
+        if (credits.isEmpty()) {
+            return;
+        }
+        List<String> missing = playerService.addCUSDBalances(credits);
+        if (!missing.isEmpty()) {
+            // Wallets come from the players table, so a miss means the row vanished mid-settlement
+            throw new IllegalStateException("Cash pool credit found no player for " + missing.size() + " wallets");
+        }
+    }
+
+    private record LockedPool(long id, BigDecimal targetAmount, LocalDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,391 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.domain.CashPool;
+import com.atlasbrawler.backend.domain.CashPoolContribution;
+import com.atlasbrawler.backend.domain.Player;
+import com.atlasbrawler.backend.domain.enums.CashPoolStatus;
+import com.atlasbrawler.backend.dto.CashPoolContributionRequest;
+import com.atlasbrawler.backend.dto.CashPoolContributionResponse;
+import com.atlasbrawler.backend.dto.CashPoolCreateRequest;
+import com.atlasbrawler.backend.dto.CashPoolResponse;
+import com.atlasbrawler.backend.repository.CashPoolContributionRepository;
+import com.atlasbrawler.backend.repository.CashPoolRepository;
+import com.atlasbrawler.backend.repository.PlayerRepository;
+import com.atlasbrawler.backend.util.SignatureUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cash pools with append-only contributions. A contribution debits the player and
+ * inserts its own row; it never writes the pool row. Running totals are kept per
+ * pool in a {@link LongAdder} of ten-thousandths of a cUSD, so contributors only
+ * contend on striped cells, and the accumulated deltas are added to
+ * {@code cash_pools.total_amount} in one JDBC batch per flush. Running totals are
+ * only kept, and only read, while the pool is ACTIVE.
+ *
+ * <p>Stored totals are recounted from the contribution rows at startup, so deltas
+ * lost to a crash before their flush are recovered. Like the session write-behind,
+ * this assumes a single application instance.
+ */
+@Service
+public class CashPoolService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CashPoolService.class);
+    private static final int AMOUNT_SCALE = 4;
+    private static final DateTimeFormatter EXPIRY_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    // Settled pools get their final total from the contribution rows, so late deltas are dropped
+    private static final String FLUSH_SQL =
+        "UPDATE cash_pools SET total_amount = total_amount + ?, updated_at = ? WHERE id = ? AND status = 'ACTIVE'";
+    // FOR SHARE lets contributors run side by side but makes settlement wait for them, and them for it
+    private static final String LOCK_ACTIVE_SQL =
+        "SELECT status, expires_at FROM cash_pools WHERE id = ? FOR SHARE";
+    private static final String RECOUNT_SQL =
+        "UPDATE cash_pools p SET total_amount = COALESCE((SELECT SUM(c.amount) FROM cash_pool_contributions c " +
+        "WHERE c.cash_pool_id = p.id), 0) WHERE p.status = 'ACTIVE'";
+
+    private final CashPoolRepository cashPoolRepository;
+    private final CashPoolContributionRepository contributionRepository;
+    private final PlayerRepository playerRepository;
+    private final PlayerService playerService;
+    private final SignatureUtil signatureUtil;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor taskExecutor;
+
+    private final ConcurrentHashMap<Long, PoolTotal> totals = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+
+    public CashPoolService(CashPoolRepository cashPoolRepository,
+                           CashPoolContributionRepository contributionRepository,
+                           PlayerRepository playerRepository,
+                           PlayerService playerService,
+                           SignatureUtil signatureUtil,
+                           JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.cashPoolRepository = cashPoolRepository;
+        this.contributionRepository = contributionRepository;
+        this.playerRepository = playerRepository;
+        this.playerService = playerService;
+        this.signatureUtil = signatureUtil;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @PostConstruct
+    void recountTotals() {
+        int pools = jdbcTemplate.update(RECOUNT_SQL);
+        logger.info("Recounted totals of {} active cash pools from their contributions", pools);
+    }
+
+    /**
+     * Creates a signed pool. The signed message is
+     * {@code "Create cash pool <name> with target <target> cUSD expiring <expiry> with nonce <nonce>"},
+     * with the target in plain notation without trailing zeros and the expiry as
+     * {@code yyyy-MM-ddTHH:mm:ss} (truncated to seconds), or {@code never} when absent.
+     */
+    @Transactional
+    public CashPoolResponse createPool(CashPoolCreateRequest request) {
+        BigDecimal target = toScale(request.getTargetAmount());
+        LocalDateTime expiresAt = request.getExpiresAt() != null
+            ? request.getExpiresAt().truncatedTo(ChronoUnit.SECONDS) : null;
+        String message = "Create cash pool " + request.getPoolName()
+            + " with target " + target.stripTrailingZeros().toPlainString() + " cUSD"
+            + " expiring " + (expiresAt != null ? EXPIRY_FORMAT.format(expiresAt) : "never")
+            + " with nonce " + request.getNonce();
+        if (!signatureUtil.verifySignature(message, request.getSignature(), request.getWalletAddress())) {
+            throw new SecurityException("Invalid signature");
+        }
+
+        Player creator = playerRepository.findByWalletAddress(request.getWalletAddress())
+            .orElseThrow(() -> new IllegalArgumentException("Player not found"));
+        if (cashPoolRepository.existsByCreatorIdAndNonce(creator.getId(), request.getNonce())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Cash pool already created");
+        }
+
+        CashPool pool;
+        try {
+            pool = cashPoolRepository.save(CashPool.builder()
+                .poolName(request.getPoolName())
+                .description(request.getDescription())
+                .targetAmount(target)
+                .expiresAt(expiresAt)
+                .nonce(request.getNonce())
+                .creator(creator)
+                .build());
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent submission of the same nonce
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Cash pool already created");
+        }
+
+        logger.info("Player {} created cash pool {}", creator.getWalletAddress(), pool.getId());
+
+        return toResponse(pool);
+    }
+
+    public CashPoolResponse getPool(Long poolId) {
+        return toResponse(findPool(poolId));
+    }
+
+    /**
+     * Records a signed contribution. The signed message is
+     * {@code "Contribute <amount> cUSD to cash pool <id> with nonce <nonce>"}, with the
+     * amount in plain notation and without trailing zeros.
+     */
+    public CashPoolContributionResponse contribute(Long poolId, CashPoolContributionRequest request) {
+        BigDecimal amount = toScale(request.getAmount());
+        String message = "Contribute " + amount.stripTrailingZeros().toPlainString() + " cUSD to cash pool "
+            + poolId + " with nonce " + request.getNonce();
+        if (!signatureUtil.verifySignature(message, request.getSignature(), request.getWalletAddress())) {
+            throw new SecurityException("Invalid signature");
+        }
+
+        CashPool pool = findPool(poolId);
+        checkOpen(pool.getStatus(), pool.getExpiresAt());
+
+        RecordedContribution recorded;
+        try {
+            recorded = transactionTemplate.execute(status -> {
+                lockOpen(poolId);
+                Player player = playerRepository.findByWalletAddress(request.getWalletAddress())
+                    .orElseThrow(() -> new IllegalArgumentException("Player not found"));
+                if (contributionRepository.existsByContributorIdAndNonce(player.getId(), request.getNonce())) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Contribution already recorded");
+                }
+                playerService.debitCUSDBalance(player.getWalletAddress(), amount);
+                CashPoolContribution saved = contributionRepository.save(CashPoolContribution.builder()
+                    .cashPool(cashPoolRepository.getReferenceById(poolId))
+                    .contributor(player)
+                    .amount(amount)
+                    .nonce(request.getNonce())
+                    .build());
+                return new RecordedContribution(saved, accumulate(pool, toUnits(amount)));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent submission of the same nonce
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Contribution already recorded");
+        }
+
+        CashPoolContribution contribution = recorded.contribution();
+        long running = recorded.runningUnits();
+        PoolTotal total = totals.get(poolId);
+        boolean targetReached = running >= toUnits(pool.getTargetAmount());
+        if (targetReached && total != null && total.targetReached.compareAndSet(false, true)) {
+            logger.info("Cash pool {} reached its target of {}", poolId, pool.getTargetAmount());
+            // Get the stored total past the target promptly rather than on the next tick
+            if (flushQueued.compareAndSet(false, true)) {
+                taskExecutor.execute(this::flush);
+            }
+        }
+
+        return CashPoolContributionResponse.builder()
+            .contributionId(contribution.getId())
+            .cashPoolId(poolId)
+            .amount(amount)
+            .poolTotal(fromUnits(running))
+            .targetReached(targetReached)
+            .build();
+    }
+
+    public boolean isTargetReached(Long poolId) {
+        CashPool pool = findPool(poolId);
+        PoolTotal total = runningTotal(pool);
+        if (total != null) {
+            return total.current() >= total.targetUnits;
+        }
+        return pool.isTargetReached();
+    }
+
+    /**
+     * Adds a contribution to the pool's running total. Called inside the contribution
+     * transaction while it holds the pool's FOR SHARE lock, so the pool is ACTIVE and
+     * cannot be settled, and its entry released, before the add; a rollback takes the
+     * amount back out. No flush touches a pool before its entry exists, so the total
+     * read before the lock is the base.
+     */
+    private long accumulate(CashPool pool, long units) {
+        PoolTotal total = totals.computeIfAbsent(pool.getId(),
+            id -> new PoolTotal(toUnits(pool.getTotalAmount()), toUnits(pool.getTargetAmount())));
+        long running = total.add(units);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    total.contributed.add(-units);
+                }
+            }
+        });
+        return running;
+    }
+
+    private PoolTotal runningTotal(CashPool pool) {
+        return pool.getStatus() == CashPoolStatus.ACTIVE ? totals.get(pool.getId()) : null;
+    }
+
+    /**
+     * Drops the running totals of pools that have been settled.
+     */
+    public void release(Collection<Long> poolIds) {
+        poolIds.forEach(totals::remove);
+    }
+
+    @Scheduled(fixedDelayString = "${cash-pool.totals.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * Adds every pool's contributions since its last flush to the stored total. A
+     * failed batch leaves the deltas in place for the next pass.
+     */
+    public synchronized void flush() {
+        flushQueued.set(false);
+
+        List<PendingFlush> pending = new ArrayList<>();
+        totals.forEach((poolId, total) -> {
+            // Adds racing with this read are picked up by the next flush
+            long contributed = total.contributed.sum();
+            if (contributed != total.flushed) {
+                pending.add(new PendingFlush(poolId, total, contributed));
+            }
+        });
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, pending, pending.size(),
+                (ps, entry) -> {
+                    ps.setBigDecimal(1, fromUnits(entry.contributed - entry.total.flushed));
+                    ps.setTimestamp(2, now);
+                    ps.setLong(3, entry.poolId);
+                }));
+        } catch (RuntimeException e) {
+            logger.error("Flushing totals for {} cash pools failed, keeping them pending", pending.size(), e);
+            return;
+        }
+
+        pending.forEach(entry -> entry.total.flushed = entry.contributed);
+        logger.debug("Flushed totals for {} cash pools", pending.size());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    private void lockOpen(Long poolId) {
+        jdbcTemplate.query(LOCK_ACTIVE_SQL, (RowCallbackHandler) rs -> {
+            Timestamp expiresAt = rs.getTimestamp("expires_at");
+            checkOpen(CashPoolStatus.valueOf(rs.getString("status")),
+                expiresAt != null ? expiresAt.toLocalDateTime() : null);
+        }, poolId);
+    }
+
+    private static void checkOpen(CashPoolStatus status, LocalDateTime expiresAt) {
+        if (status != CashPoolStatus.ACTIVE) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Cash pool is not active");
+        }
+        if (expiresAt != null && !expiresAt.isAfter(LocalDateTime.now())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Cash pool has expired");
+        }
+    }
+
+    private CashPool findPool(Long poolId) {
+        return cashPoolRepository.findById(poolId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Cash pool not found"));
+    }
+
+    private CashPoolResponse toResponse(CashPool pool) {
+        PoolTotal total = runningTotal(pool);
+        BigDecimal totalAmount = total != null ? fromUnits(total.current()) : pool.getTotalAmount();
+        return CashPoolResponse.builder()
+            .id(pool.getId())
+            .poolName(pool.getPoolName())
+            .description(pool.getDescription())
+            .totalAmount(totalAmount)
+            .targetAmount(pool.getTargetAmount())
+            .status(pool.getStatus())
+            .targetReached(totalAmount.compareTo(pool.getTargetAmount()) >= 0)
+            .expiresAt(pool.getExpiresAt())
+            .createdAt(pool.getCreatedAt())
+            .build();
+    }
+
+    private static BigDecimal toScale(BigDecimal amount) {
+        try {
+            return amount.setScale(AMOUNT_SCALE);
+        } catch (ArithmeticException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Amounts support at most " + AMOUNT_SCALE + " decimal places");
+        }
+    }
+
+    private static long toUnits(BigDecimal amount) {
+        return amount.setScale(AMOUNT_SCALE).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal fromUnits(long units) {
+        return BigDecimal.valueOf(units, AMOUNT_SCALE);
+    }
+
+    private static final class PoolTotal {
+
+        private final long baseUnits;
+        private final long targetUnits;
+        private final LongAdder contributed = new LongAdder();
+        private final AtomicBoolean targetReached = new AtomicBoolean();
+        // Only read and written under the flush lock
+        private long flushed;
+
+        private PoolTotal(long baseUnits, long targetUnits) {
+            this.baseUnits = baseUnits;
+            this.targetUnits = targetUnits;
+            this.targetReached.set(baseUnits >= targetUnits);
+        }
+
+        private long add(long units) {
+            contributed.add(units);
+            return current();
+        }
+
+        private long current() {
+            return baseUnits + contributed.sum();
+        }
+    }
+
+    private record PendingFlush(Long poolId, PoolTotal total, long contributed) {
+    }
+
+    private record RecordedContribution(CashPoolContribution contribution, long runningUnits) {
+    }
+}
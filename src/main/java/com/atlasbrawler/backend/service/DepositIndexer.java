@@ -0,0 +1,218 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.domain.ChainCheckpoint;
+import com.atlasbrawler.backend.repository.ChainCheckpointRepository;
+import com.atlasbrawler.backend.util.BlockchainUtil;
+import com.atlasbrawler.backend.util.ChainHeadTracker;
+import com.atlasbrawler.backend.util.JsonRpcBatcher;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.web3j.abi.EventEncoder;
+import org.web3j.abi.TypeReference;
+import org.web3j.abi.datatypes.Address;
+import org.web3j.abi.datatypes.Event;
+import org.web3j.abi.datatypes.generated.Uint256;
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.utils.Numeric;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Scans finalized blocks for cUSD deposits to the hot wallet, whether or not the
+ * client stayed around for the receipt. Each run continues from a persisted
+ * checkpoint and after downtime fetches several block ranges at once; all requests
+ * go through the {@link JsonRpcBatcher}. Only cUSD {@code Transfer} events to the
+ * hot wallet are credited, since deposits land in the cUSD balance; native CELO
+ * sent to the hot wallet is not a deposit.
+ *
+ * <p>Off by default. It needs {@code celo.indexer.enabled=true} and the cUSD token
+ * contract in {@code celo.cusd.address}, and does nothing without the latter.
+ *
+ * <p>The checkpoint only moves past ranges whose deposits were all handed to
+ * {@link DepositService}, and crediting is idempotent, so re-scanning after a
+ * crash or a failed range is safe.
+ */
+@Service
+public class DepositIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DepositIndexer.class);
+    private static final String CHECKPOINT_ID = "deposit-indexer";
+    private static final String TRANSFER_TOPIC = EventEncoder.encode(new Event("Transfer", List.of(
+        new TypeReference<Address>(true) {}, new TypeReference<Address>(true) {}, new TypeReference<Uint256>() {})));
+
+    private final Web3j web3j;
+    private final JsonRpcBatcher rpcBatcher;
+    private final ChainHeadTracker headTracker;
+    private final BlockchainUtil blockchainUtil;
+    private final DepositService depositService;
+    private final ChainCheckpointRepository checkpointRepository;
+    private final String hotWallet;
+
+    @Value("${celo.indexer.enabled:false}")
+    private boolean enabled;
+
+    @Value("${celo.indexer.start-block:-1}")
+    private long startBlock;
+
+    @Value("${celo.indexer.confirmations:2}")
+    private int confirmations;
+
+    @Value("${celo.indexer.range-size:200}")
+    private int rangeSize;
+
+    @Value("${celo.indexer.parallel-ranges:4}")
+    private int parallelRanges;
+
+    @Value("${celo.cusd.address:}")
+    private String cusdAddress;
+
+    public DepositIndexer(Web3j web3j, Credentials credentials, JsonRpcBatcher rpcBatcher,
+                          ChainHeadTracker headTracker, BlockchainUtil blockchainUtil,
+                          DepositService depositService, ChainCheckpointRepository checkpointRepository) {
+        this.web3j = web3j;
+        this.rpcBatcher = rpcBatcher;
+        this.headTracker = headTracker;
+        this.blockchainUtil = blockchainUtil;
+        this.depositService = depositService;
+        this.checkpointRepository = checkpointRepository;
+        this.hotWallet = credentials.getAddress();
+    }
+
+    @PostConstruct
+    void checkConfiguration() {
+        if (enabled && !hasCusdAddress()) {
+            logger.warn("Deposit indexer is enabled but celo.cusd.address is not set; no deposits will be indexed");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${celo.indexer.poll-interval-ms:5000}")
+    public void index() {
+        if (!enabled || !hasCusdAddress()) {
+            return;
+        }
+
+        try {
+            long safeHead = headTracker.currentHead().join().longValue() - confirmations;
+            ChainCheckpoint checkpoint = loadCheckpoint(safeHead);
+
+            while (checkpoint.getBlockNumber() < safeHead) {
+                long indexedThrough = indexRound(checkpoint.getBlockNumber() + 1, safeHead);
+                if (indexedThrough <= checkpoint.getBlockNumber()) {
+                    break;
+                }
+                checkpoint.setBlockNumber(indexedThrough);
+                checkpoint = checkpointRepository.save(checkpoint);
+            }
+        } catch (Exception e) {
+            logger.warn("Deposit indexing run failed, retrying next cycle", e);
+        }
+    }
+
+    private ChainCheckpoint loadCheckpoint(long safeHead) {
+        return checkpointRepository.findById(CHECKPOINT_ID).orElseGet(() -> {
+            long initial = startBlock >= 0 ? startBlock - 1 : safeHead;
+            logger.info("No deposit checkpoint found, indexing from block {}", initial + 1);
+            return checkpointRepository.save(ChainCheckpoint.builder()
+                .id(CHECKPOINT_ID)
+                .blockNumber(initial)
+                .build());
+        });
+    }
+
+    /**
+     * Scans up to {@code parallel-ranges} ranges concurrently and credits what they
+     * found. Returns the last block of the leading run of ranges that succeeded.
+     */
+    private long indexRound(long from, long safeHead) {
+        List<long[]> ranges = new ArrayList<>();
+        List<CompletableFuture<List<Deposit>>> scans = new ArrayList<>();
+        for (long start = from; start <= safeHead && ranges.size() < parallelRanges; start += rangeSize) {
+            long end = Math.min(safeHead, start + rangeSize - 1);
+            ranges.add(new long[] {start, end});
+            scans.add(scanRange(start, end));
+        }
+
+        long indexedThrough = from - 1;
+        boolean contiguous = true;
+        for (int i = 0; i < ranges.size(); i++) {
+            long[] range = ranges.get(i);
+            try {
+                List<Deposit> deposits = scans.get(i).join();
+                deposits.forEach(this::credit);
+                if (contiguous) {
+                    indexedThrough = range[1];
+                }
+                if (!deposits.isEmpty()) {
+                    logger.info("Found {} deposits in blocks {}-{}", deposits.size(), range[0], range[1]);
+                }
+            } catch (RuntimeException e) {
+                contiguous = false;
+                logger.warn("Indexing blocks {}-{} failed, will retry", range[0], range[1], e);
+            }
+        }
+        return indexedThrough;
+    }
+
+    private CompletableFuture<List<Deposit>> scanRange(long start, long end) {
+        return rpcBatcher.submit(web3j.ethGetLogs(transferFilter(start, end))).thenApply(this::tokenDeposits);
+    }
+
+    private boolean hasCusdAddress() {
+        return cusdAddress != null && !cusdAddress.isBlank();
+    }
+
+    private EthFilter transferFilter(long start, long end) {
+        EthFilter filter = new EthFilter(
+            DefaultBlockParameter.valueOf(BigInteger.valueOf(start)),
+            DefaultBlockParameter.valueOf(BigInteger.valueOf(end)),
+            cusdAddress);
+        filter.addSingleTopic(TRANSFER_TOPIC);
+        filter.addNullTopic();
+        filter.addSingleTopic(Numeric.toHexStringWithPrefixZeroPadded(Numeric.toBigInt(hotWallet), 64));
+        return filter;
+    }
+
+    private List<Deposit> tokenDeposits(EthLog response) {
+        if (response.hasError()) {
+            throw new IllegalStateException("eth_getLogs failed: " + response.getError().getMessage());
+        }
+        List<Deposit> deposits = new ArrayList<>();
+        for (EthLog.LogResult<?> result : response.getLogs()) {
+            Log log = (Log) result.get();
+            if (log.isRemoved() || log.getTopics().size() < 3) {
+                continue;
+            }
+            String from = "0x" + log.getTopics().get(1).substring(26);
+            deposits.add(new Deposit(log.getTransactionHash(), from,
+                blockchainUtil.weiToEther(Numeric.toBigInt(log.getData())),
+                log.getBlockNumber().longValue(), "cUSD deposit (indexed)"));
+        }
+        return deposits;
+    }
+
+    private void credit(Deposit deposit) {
+        try {
+            depositService.creditDeposit(deposit.txHash(), deposit.fromAddress(), hotWallet,
+                deposit.amount(), deposit.blockNumber(), deposit.description());
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Deposit {} was credited concurrently", deposit.txHash());
+        }
+    }
+
+    private record Deposit(String txHash, String fromAddress, BigDecimal amount, long blockNumber, String description) {
+    }
+}
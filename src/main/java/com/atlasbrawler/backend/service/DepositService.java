@@ -0,0 +1,82 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.domain.Player;
+import com.atlasbrawler.backend.domain.Transaction;
+import com.atlasbrawler.backend.domain.enums.TransactionStatus;
+import com.atlasbrawler.backend.domain.enums.TransactionType;
+import com.atlasbrawler.backend.repository.PlayerRepository;
+import com.atlasbrawler.backend.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Credits on-chain deposits to the hot wallet exactly once per transaction hash.
+ * Both the receipt tracker and the chain indexer go through here, so whichever
+ * sees a deposit first credits it and the other finds the confirmed row.
+ */
+@Service
+public class DepositService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DepositService.class);
+
+    private final TransactionRepository transactionRepository;
+    private final PlayerRepository playerRepository;
+    private final PlayerService playerService;
+
+    public DepositService(TransactionRepository transactionRepository,
+                          PlayerRepository playerRepository,
+                          PlayerService playerService) {
+        this.transactionRepository = transactionRepository;
+        this.playerRepository = playerRepository;
+        this.playerService = playerService;
+    }
+
+    /**
+     * Records the deposit as a confirmed {@link TransactionType#DEPOSIT} and adds it to
+     * the sender's cUSD balance. Returns false if the hash was already credited or the
+     * sender is not a registered player. A hash already recorded as a deposit is
+     * handled through the locked {@code findForUpdateByTransactionHashAndType} lookup.
+     * Two first-time callers, where neither finds a row to lock, are stopped by the
+     * unique {@code (transaction_hash, player_id)} key instead: both insert for the same
+     * sender, so the loser gets a {@code DataIntegrityViolationException} and its
+     * transaction rolls back.
+     */
+    @Transactional
+    public boolean creditDeposit(String txHash, String fromAddress, String toAddress,
+                                 BigDecimal amount, Long blockNumber, String description) {
+        String hash = txHash.toLowerCase();
+        Optional<Transaction> existing = transactionRepository.findForUpdateByTransactionHashAndType(
+                hash, TransactionType.DEPOSIT);
+        if (existing.isPresent() && existing.get().getStatus() == TransactionStatus.CONFIRMED) {
+            return false;
+        }
+
+        Player player = existing.map(Transaction::getPlayer)
+                .or(() -> playerRepository.findByWalletAddressIgnoreCase(fromAddress))
+                .orElse(null);
+        if (player == null) {
+            logger.warn("Ignoring deposit {} from unregistered wallet {}", hash, fromAddress);
+            return false;
+        }
+
+        Transaction transaction = existing.orElseGet(() -> Transaction.builder()
+                .player(player)
+                .transactionType(TransactionType.DEPOSIT)
+                .amount(amount)
+                .fromAddress(fromAddress)
+                .toAddress(toAddress)
+                .description(description)
+                .build());
+        transaction.markAsConfirmed(hash, blockNumber);
+        transactionRepository.saveAndFlush(transaction);
+
+        playerService.addCUSDBalance(player.getWalletAddress(), amount);
+        logger.info("Credited deposit of {} cUSD from {} (TX {})", amount, player.getWalletAddress(), hash);
+        return true;
+    }
+}
@@ -0,0 +1,252 @@
+package com.atlasbrawler.backend.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams whole tables for analytics. Rows are read through a forward-only cursor
+ * in a read-only transaction, which is what makes the PostgreSQL driver honour the
+ * fetch size, and written straight to the response, so memory stays flat whatever
+ * the table size. Every exported table carries an {@code updated_at} that is set
+ * on each change; rows come out ordered by it, and {@code since} limits an export
+ * to rows changed after that instant.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private static final Map<String, String> DATASETS = Map.of(
+        "players",
+        "SELECT id, wallet_address, username, soft_token_balance, cusdbalance AS cusd_balance, " +
+        "total_games_played, total_wins, high_score, created_at, updated_at FROM players",
+        "rewards",
+        "SELECT id, player_id, reward_type, amount, status, reason, transaction_hash, waves_survived, score, " +
+        "created_at, claimed_at, updated_at FROM rewards",
+        "transactions",
+        "SELECT id, player_id, transaction_type, amount, status, transaction_hash, from_address, to_address, " +
+        "description, block_number, gas_used, created_at, confirmed_at, updated_at FROM transactions"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final JsonFactory jsonFactory;
+
+    @Value("${export.fetch-size:1000}")
+    private int fetchSize;
+
+    public ExportService(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Resolves the dataset and format up front, so bad requests fail before the
+     * response is committed, and returns the body that streams the rows.
+     */
+    public StreamingResponseBody export(String dataset, ExportFormat format, LocalDateTime since) {
+        String select = DATASETS.get(dataset);
+        if (select == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown export dataset: " + dataset);
+        }
+
+        // Served by the (updated_at, id) index of each table
+        String sql = select
+            + (since != null ? " WHERE updated_at > ?" : "")
+            + " ORDER BY updated_at, id";
+
+        return out -> {
+            long start = System.nanoTime();
+            long rows;
+            try {
+                rows = readOnlyTransactionTemplate.execute(status -> jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(fetchSize);
+                    if (since != null) {
+                        ps.setTimestamp(1, Timestamp.valueOf(since));
+                    }
+                    return ps;
+                }, (ResultSetExtractor<Long>) rs -> {
+                    try {
+                        return write(rs, format, out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            } catch (UncheckedIOException e) {
+                // Usually the client went away; the transaction has been rolled back
+                throw e.getCause();
+            }
+            logger.info("Exported {} {} rows as {} in {} ms", rows, dataset, format,
+                (System.nanoTime() - start) / 1_000_000);
+        };
+    }
+
+    private long write(ResultSet rs, ExportFormat format, OutputStream out) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        String[] labels = new String[columns];
+        int[] types = new int[columns];
+        for (int i = 0; i < columns; i++) {
+            labels[i] = meta.getColumnLabel(i + 1);
+            types[i] = meta.getColumnType(i + 1);
+        }
+
+        long rows = 0;
+        if (format == ExportFormat.NDJSON) {
+            try (JsonGenerator json = jsonFactory.createGenerator(out)) {
+                json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                json.setRootValueSeparator(null);
+                while (rs.next()) {
+                    writeJson(json, rs, labels, types);
+                    json.writeRaw('\n');
+                    rows++;
+                }
+            }
+        } else {
+            Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writeCsvLine(csv, labels);
+            String[] values = new String[columns];
+            while (rs.next()) {
+                for (int i = 0; i < columns; i++) {
+                    Object value = rs.getObject(i + 1);
+                    values[i] = value instanceof Timestamp timestamp ? timestamp.toLocalDateTime().toString()
+                        : value instanceof BigDecimal decimal ? decimal.toPlainString()
+                        : value != null ? value.toString() : null;
+                }
+                writeCsvLine(csv, values);
+                rows++;
+            }
+            csv.flush();
+        }
+        return rows;
+    }
+
+    private static void writeJson(JsonGenerator json, ResultSet rs, String[] labels, int[] types)
+            throws SQLException, IOException {
+        json.writeStartObject();
+        for (int i = 0; i < labels.length; i++) {
+            json.writeFieldName(labels[i]);
+            int column = i + 1;
+            switch (types[i]) {
+                case Types.BIGINT, Types.INTEGER, Types.SMALLINT -> {
+                    long value = rs.getLong(column);
+                    if (rs.wasNull()) {
+                        json.writeNull();
+                    } else {
+                        json.writeNumber(value);
+                    }
+                }
+                case Types.NUMERIC, Types.DECIMAL -> {
+                    BigDecimal value = rs.getBigDecimal(column);
+                    if (value == null) {
+                        json.writeNull();
+                    } else {
+                        json.writeNumber(value);
+                    }
+                }
+                case Types.TIMESTAMP -> {
+                    Timestamp value = rs.getTimestamp(column);
+                    if (value == null) {
+                        json.writeNull();
+                    } else {
+                        json.writeString(value.toLocalDateTime().toString());
+                    }
+                }
+                default -> {
+                    String value = rs.getString(column);
+                    if (value == null) {
+                        json.writeNull();
+                    } else {
+                        json.writeString(value);
+                    }
+                }
+            }
+        }
+        json.writeEndObject();
+    }
+
+    private static void writeCsvLine(Writer csv, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                csv.write(',');
+            }
+            String value = values[i];
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                csv.write('"');
+                csv.write(value.replace("\"", "\"\""));
+                csv.write('"');
+            } else {
+                csv.write(value);
+            }
+        }
+        csv.write('\n');
+    }
+
+    public enum ExportFormat {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        ExportFormat(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static ExportFormat parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.domain.Player;
+import com.atlasbrawler.backend.dto.LeaderboardEntry;
+import com.atlasbrawler.backend.repository.PlayerRepository;
+import com.atlasbrawler.backend.util.OrderStatisticTree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory leaderboard ranked by high score, then total wins. Standings live in
+ * an {@link OrderStatisticTree}, so top-N, rank and neighbour queries cost
+ * O(log n) instead of an ORDER BY over the players table.
+ *
+ * <p>A rebuild reads the players table without holding the lock. Updates made
+ * meanwhile are applied to the live board and also buffered. Once the snapshot
+ * has been read, it replaces the board, and the buffered updates that came after
+ * their player's page was read are applied on top of it.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+    private static final int REBUILD_PAGE_SIZE = 1000;
+    private static final Comparator<Standing> RANKING = Comparator
+        .comparingInt(Standing::highScore).reversed()
+        .thenComparing(Comparator.comparingInt(Standing::totalWins).reversed())
+        .thenComparingLong(Standing::playerId);
+
+    private final PlayerRepository playerRepository;
+    private final OrderStatisticTree<Standing> ranking = new OrderStatisticTree<>(RANKING);
+    private final Map<String, Standing> byWallet = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Both guarded by lock; buffered is only non-null while a rebuild runs
+    private List<BufferedUpdate> buffered;
+    private long updateSeq;
+
+    public LeaderboardService(PlayerRepository playerRepository) {
+        this.playerRepository = playerRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            buffered = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Standing> standings = new ArrayList<>();
+        // Last update sequence seen before each player's page was read
+        Map<Long, Long> readAfter = new HashMap<>();
+        int replayed = 0;
+        boolean complete = false;
+        try {
+            Pageable pageable = PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id"));
+            while (true) {
+                long seen = currentUpdateSeq();
+                Slice<Player> page = playerRepository.findAll(pageable);
+                for (Player player : page) {
+                    standings.add(Standing.of(player));
+                    readAfter.put(player.getId(), seen);
+                }
+                if (!page.hasNext()) {
+                    break;
+                }
+                pageable = page.nextPageable();
+            }
+            complete = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                // A failed read leaves the live board, which already has the buffered updates
+                if (complete) {
+                    ranking.clear();
+                    byWallet.clear();
+                    for (Standing standing : standings) {
+                        ranking.add(standing);
+                        byWallet.put(normalize(standing.walletAddress()), standing);
+                    }
+                    for (BufferedUpdate update : buffered) {
+                        if (update.seq() > readAfter.getOrDefault(update.playerId(), 0L)) {
+                            update.change().run();
+                            replayed++;
+                        }
+                    }
+                }
+                buffered = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        logger.info("Leaderboard rebuilt with {} players, {} concurrent updates replayed", standings.size(), replayed);
+    }
+
+    /**
+     * Adds a newly registered player at the bottom of the board.
+     */
+    public void addPlayer(Player player) {
+        update(player.getId(), () -> replaceLocked(Standing.of(player)));
+    }
+
+    /**
+     * Applies one finished session to the player's standing.
+     */
+    public void recordSession(Player player, int score, boolean win) {
+        update(player.getId(), () -> {
+            Standing current = byWallet.get(normalize(player.getWalletAddress()));
+            Standing updated = current == null
+                ? Standing.of(player)
+                : new Standing(current.playerId(), current.walletAddress(), current.username(),
+                    Math.max(current.highScore(), score), current.totalWins() + (win ? 1 : 0));
+            replaceLocked(updated);
+        });
+    }
+
+    /**
+     * Applies a change to the live board, and keeps it for replay if a rebuild is
+     * reading the players table.
+     */
+    private void update(long playerId, Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (buffered != null) {
+                buffered.add(new BufferedUpdate(++updateSeq, playerId, change));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long currentUpdateSeq() {
+        lock.readLock().lock();
+        try {
+            return updateSeq;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<LeaderboardEntry> getTop(int limit) {
+        lock.readLock().lock();
+        try {
+            return toEntries(ranking.range(0, limit), 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public LeaderboardEntry getRank(String walletAddress) {
+        lock.readLock().lock();
+        try {
+            Standing standing = findStanding(walletAddress);
+            return toEntry(standing, ranking.rank(standing));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<LeaderboardEntry> getAround(String walletAddress, int radius) {
+        lock.readLock().lock();
+        try {
+            int rank = ranking.rank(findStanding(walletAddress));
+            int from = Math.max(0, rank - radius);
+            return toEntries(ranking.range(from, rank + radius + 1), from);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return byWallet.size();
+    }
+
+    private void replaceLocked(Standing standing) {
+        Standing previous = byWallet.put(normalize(standing.walletAddress()), standing);
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+        ranking.add(standing);
+    }
+
+    private Standing findStanding(String walletAddress) {
+        Standing standing = byWallet.get(normalize(walletAddress));
+        if (standing == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Player not found");
+        }
+        return standing;
+    }
+
+    private static List<LeaderboardEntry> toEntries(List<Standing> standings, int firstRank) {
+        List<LeaderboardEntry> entries = new ArrayList<>(standings.size());
+        for (int i = 0; i < standings.size(); i++) {
+            entries.add(toEntry(standings.get(i), firstRank + i));
+        }
+        return entries;
+    }
+
+    private static LeaderboardEntry toEntry(Standing standing, int zeroBasedRank) {
+        return LeaderboardEntry.builder()
+            .rank(zeroBasedRank + 1)
+            .walletAddress(standing.walletAddress())
+            .username(standing.username())
+            .highScore(standing.highScore())
+            .totalWins(standing.totalWins())
+            .build();
+    }
+
+    private static String normalize(String walletAddress) {
+        return walletAddress.toLowerCase();
+    }
+
+    private record BufferedUpdate(long seq, long playerId, Runnable change) {
+    }
+
+    private record Standing(long playerId, String walletAddress, String username, int highScore, int totalWins) {
+
+        private static Standing of(Player player) {
+            return new Standing(player.getId(), player.getWalletAddress(), player.getUsername(),
+                player.getHighScore(), player.getTotalWins());
+        }
+    }
+}
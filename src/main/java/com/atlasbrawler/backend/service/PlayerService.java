@@ -1,5 +1,6 @@
 package com.atlasbrawler.backend.service;
 
+import com.atlasbrawler.backend.config.CacheConfig;
 import com.atlasbrawler.backend.domain.Player;
 import com.atlasbrawler.backend.domain.SkaterCard;
 import com.atlasbrawler.backend.dto.PlayerRegistrationRequest;
@@ -9,28 +10,51 @@ import com.atlasbrawler.backend.repository.SkaterCardRepository;
 import com.atlasbrawler.backend.util.SignatureUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class PlayerService {
 
     private static final Logger logger = LoggerFactory.getLogger(PlayerService.class);
+    private static final String BULK_CUSD_CREDIT_SQL =
+            "UPDATE players SET cusdbalance = cusdbalance + ?, version = version + 1, updated_at = ? " +
+            "WHERE wallet_address = ?";
 
     private final PlayerRepository playerRepository;
     private final SkaterCardRepository skaterCardRepository;
     private final SignatureUtil signatureUtil;
+    private final LeaderboardService leaderboardService;
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
 
     public PlayerService(PlayerRepository playerRepository,
             SkaterCardRepository skaterCardRepository,
-            SignatureUtil signatureUtil) {
+            SignatureUtil signatureUtil,
+            LeaderboardService leaderboardService,
+            JdbcTemplate jdbcTemplate,
+            CacheManager cacheManager) {
         this.playerRepository = playerRepository;
         this.skaterCardRepository = skaterCardRepository;
         this.signatureUtil = signatureUtil;
+        this.leaderboardService = leaderboardService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheManager = cacheManager;
     }
 
     @Transactional
@@ -74,34 +98,109 @@ public class PlayerService {
 
         skaterCardRepository.save(defaultCard);
 
+        Player registered = player;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                leaderboardService.addPlayer(registered);
+            }
+        });
+
         logger.info("Registered new player: {}", player.getWalletAddress());
 
         return mapToResponse(player);
     }
 
+    @Cacheable(cacheNames = CacheConfig.PLAYERS, key = CacheConfig.WALLET_KEY)
     public PlayerResponse getPlayerByWallet(String walletAddress) {
-        Player player = playerRepository.findByWalletAddress(walletAddress)
+        Player player = playerRepository.findByWalletAddressIgnoreCase(walletAddress)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Player not found"));
         return mapToResponse(player);
     }
 
     @Transactional
     public void addSoftTokens(String walletAddress, BigDecimal amount) {
-        Player player = playerRepository.findByWalletAddress(walletAddress)
-                .orElseThrow(() -> new IllegalArgumentException("Player not found"));
-        player.addSoftTokens(amount);
-        playerRepository.save(player);
+        if (playerRepository.addSoftTokens(walletAddress, amount, LocalDateTime.now()) == 0) {
+            throw new IllegalArgumentException("Player not found");
+        }
+        evictAfterCommit(List.of(walletAddress));
     }
 
     @Transactional
     public void addCUSDBalance(String walletAddress, BigDecimal amount) {
-        Player player = playerRepository.findByWalletAddress(walletAddress)
-                .orElseThrow(() -> new IllegalArgumentException("Player not found"));
-        player.addCUSDBalance(amount);
-        playerRepository.save(player);
+        if (playerRepository.addCUSDBalance(walletAddress, amount, LocalDateTime.now()) == 0) {
+            throw new IllegalArgumentException("Player not found");
+        }
+        evictAfterCommit(List.of(walletAddress));
+    }
+
+    /**
+     * Debits cUSD only if the balance covers it, in one conditional UPDATE, so
+     * concurrent debits can never take the balance below zero.
+     */
+    @Transactional
+    public void debitCUSDBalance(String walletAddress, BigDecimal amount) {
+        if (playerRepository.debitCUSDBalance(walletAddress, amount, LocalDateTime.now()) == 0) {
+            if (!playerRepository.existsByWalletAddress(walletAddress)) {
+                throw new IllegalArgumentException("Player not found");
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Insufficient cUSD balance");
+        }
+        evictAfterCommit(List.of(walletAddress));
+    }
+
+    /**
+     * Applies many cUSD credits in one JDBC batch, each an atomic increment. Credits to
+     * wallets that are not registered are skipped and returned.
+     */
+    @Transactional
+    public List<String> addCUSDBalances(Map<String, BigDecimal> credits) {
+        List<Map.Entry<String, BigDecimal>> entries = new ArrayList<>(credits.entrySet());
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(BULK_CUSD_CREDIT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setBigDecimal(1, entry.getValue());
+            ps.setTimestamp(2, now);
+            ps.setString(3, entry.getKey());
+        });
+
+        List<String> missing = new ArrayList<>();
+        List<String> credited = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            String wallet = entries.get(i).getKey();
+            if (counts[0][i] == 0) {
+                missing.add(wallet);
+            } else {
+                credited.add(wallet);
+            }
+        }
+        evictAfterCommit(credited);
+        if (!missing.isEmpty()) {
+            logger.warn("Skipped cUSD credits for {} unregistered wallets", missing.size());
+        }
+        return missing;
+    }
+
+    /**
+     * Evicts cached players once the balance change has committed. Evicting earlier
+     * lets a concurrent read cache the old row again before the commit.
+     */
+    private void evictAfterCommit(List<String> walletAddresses) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Cache players = cacheManager.getCache(CacheConfig.PLAYERS);
+                if (players != null) {
+                    walletAddresses.forEach(wallet -> players.evict(wallet.toLowerCase()));
+                }
+            }
+        });
     }
 
-    private PlayerResponse mapToResponse(Player player) {
+    PlayerResponse mapToResponse(Player player) {
         return PlayerResponse.builder()
                 .id(player.getId())
                 .walletAddress(player.getWalletAddress())
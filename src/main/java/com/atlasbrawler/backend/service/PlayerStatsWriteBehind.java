@@ -0,0 +1,588 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.config.CacheConfig;
+import com.atlasbrawler.backend.domain.JournalCheckpoint;
+import com.atlasbrawler.backend.domain.Player;
+import com.atlasbrawler.backend.domain.Reward;
+import com.atlasbrawler.backend.repository.JournalCheckpointRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Write-behind buffer for per-session player stats. Sessions are folded into
+ * per-player deltas held in striped maps and applied to {@code players} in one
+ * JDBC batch, either on a schedule or once enough sessions have piled up.
+ *
+ * <p>Sessions recorded inside a transaction are journaled just before it commits
+ * and buffered from its afterCommit hook. A journal write that fails throws from
+ * the beforeCommit hook and rolls the session back, so no committed session is
+ * missing from the journal. All sessions of one transaction go to the journal in
+ * a single write, and concurrent writers share one fsync: whoever finds no sync
+ * running forces the channel for everything appended so far, and the others wait
+ * for it.
+ *
+ * <p>Each entry carries its reward id. A flush rotates to a fresh segment, waits
+ * for the sessions journaled into the sealed one to finish committing, applies
+ * their deltas and moves the {@link JournalCheckpoint} to the sealed segment in
+ * the same transaction, and only then deletes the segment. At startup, segments
+ * past the checkpoint are replayed, skipping entries whose reward never
+ * committed, and older ones are deleted unread; a crash at any point therefore
+ * neither loses nor repeats a session.
+ */
+@Service
+public class PlayerStatsWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlayerStatsWriteBehind.class);
+    private static final String CHECKPOINT_ID = "player-stats";
+    private static final String SEGMENT_PREFIX = "player-stats-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final int REPLAY_LOOKUP_SIZE = 500;
+    private static final String FLUSH_SQL =
+        "UPDATE players SET total_games_played = total_games_played + ?, total_wins = total_wins + ?, " +
+        "high_score = GREATEST(high_score, ?), soft_token_balance = soft_token_balance + ?, version = version + 1, " +
+        "updated_at = ? " +
+        "WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final CacheManager cacheManager;
+    private final Executor taskExecutor;
+
+    private final ReentrantReadWriteLock rotationLock = new ReentrantReadWriteLock();
+    private final Object journalLock = new Object();
+    private final Object pendingKey = new Object();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition syncDone = syncLock.newCondition();
+    private final AtomicInteger bufferedSessions = new AtomicInteger();
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private volatile Generation current;
+    private int stripeSize;
+    private FileChannel journal;
+    private long segment;
+    // Guarded by journalLock
+    private long appendedWrites;
+    // Guarded by syncLock
+    private long syncedWrites;
+    private boolean syncing;
+
+    @Value("${game.session.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${game.session.write-behind.stripes:16}")
+    private int stripeCount;
+
+    @Value("${game.session.write-behind.flush-threshold:500}")
+    private int flushThreshold;
+
+    @Value("${game.session.write-behind.journal-dir:data/session-journal}")
+    private String journalDir;
+
+    @Value("${game.session.write-behind.journal-fsync:true}")
+    private boolean journalFsync;
+
+    public PlayerStatsWriteBehind(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  JournalCheckpointRepository checkpointRepository,
+                                  CacheManager cacheManager,
+                                  @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.checkpointRepository = checkpointRepository;
+        this.cacheManager = cacheManager;
+        this.taskExecutor = taskExecutor;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        stripeSize = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        Path dir = Paths.get(journalDir);
+        Files.createDirectories(dir);
+
+        long flushedSegment = checkpointRepository.findById(CHECKPOINT_ID)
+            .map(JournalCheckpoint::getSegment)
+            .orElse(0L);
+        List<Path> leftovers = listSegments();
+        segment = flushedSegment;
+        for (Path path : leftovers) {
+            segment = Math.max(segment, segmentNumber(path));
+        }
+        openSegment(segment + 1);
+        current = new Generation(segment, stripeSize);
+
+        int replayedSegments = 0;
+        for (Path path : leftovers) {
+            if (segmentNumber(path) <= flushedSegment) {
+                // Already applied by the flush that moved the checkpoint
+                Files.deleteIfExists(path);
+            } else {
+                bufferedSessions.addAndGet(replay(path));
+                replayedSegments++;
+            }
+        }
+
+        logger.info("Write-behind player stats enabled ({} stripes, journal {}), replayed {} segments",
+            stripeSize, dir.toAbsolutePath(), replayedSegments);
+    }
+
+    /**
+     * Buffers the stats of one finished session, journaled before the current
+     * transaction commits and buffered once it has, or both at once outside a
+     * transaction. The reward must have its id by the time the session is journaled.
+     */
+    public void record(Reward reward, boolean win, int score, BigDecimal softTokens) {
+        Player player = reward.getPlayer();
+        Session session = new Session(reward, player.getId(),
+            new PlayerStatsDelta(player.getWalletAddress(), 1, win ? 1 : 0, score, softTokens));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Generation generation = journal(List.of(session));
+            try {
+                buffer(generation, List.of(session));
+            } finally {
+                generation.release();
+            }
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Session> pending = (List<Session>) TransactionSynchronizationManager.getResource(pendingKey);
+        if (pending == null) {
+            List<Session> sessions = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(pendingKey, sessions);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private Generation generation;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    generation = journal(sessions);
+                }
+
+                @Override
+                public void afterCommit() {
+                    if (generation != null) {
+                        buffer(generation, sessions);
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(pendingKey);
+                    if (generation != null) {
+                        generation.release();
+                        generation = null;
+                    }
+                }
+            });
+            pending = sessions;
+        }
+        pending.add(session);
+    }
+
+    /**
+     * Writes the sessions to the current segment and returns its generation, which
+     * a flush will not apply until the caller has released it.
+     */
+    private Generation journal(List<Session> sessions) {
+        StringBuilder lines = new StringBuilder();
+        for (Session session : sessions) {
+            Long rewardId = session.reward().getId();
+            if (rewardId == null) {
+                throw new IllegalStateException("Reward must be saved before its session stats are journaled");
+            }
+            PlayerStatsDelta delta = session.delta();
+            lines.append(rewardId).append(',').append(session.playerId()).append(',')
+                .append(delta.walletAddress).append(',').append(delta.games).append(',').append(delta.wins)
+                .append(',').append(delta.highScore).append(',').append(delta.softTokens.toPlainString()).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+
+        rotationLock.readLock().lock();
+        try {
+            Generation generation = current;
+            generation.acquire();
+            try {
+                long write = appendToJournal(buffer);
+                if (journalFsync) {
+                    awaitSync(write);
+                }
+            } catch (IOException e) {
+                generation.release();
+                throw new IllegalStateException("Failed to journal stats of " + sessions.size() + " sessions", e);
+            }
+            return generation;
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+    }
+
+    private void buffer(Generation generation, List<Session> sessions) {
+        sessions.forEach(session -> generation.merge(session.playerId(), session.delta()));
+        if (bufferedSessions.addAndGet(sessions.size()) >= flushThreshold && flushQueued.compareAndSet(false, true)) {
+            taskExecutor.execute(this::flush);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${game.session.write-behind.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    public synchronized void flush() {
+        flushQueued.set(false);
+
+        Generation sealed;
+        rotationLock.writeLock().lock();
+        try {
+            sealed = current;
+            if (sealed.isIdle()) {
+                return;
+            }
+            openSegment(segment + 1);
+            current = new Generation(segment, stripeSize);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to rotate player stats journal", e);
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+
+        // Sessions journaled into the sealed segment may still be committing
+        sealed.awaitReleased();
+        List<Map.Entry<Long, PlayerStatsDelta>> deltas = sealed.drain();
+        int sessions = deltas.stream().mapToInt(entry -> entry.getValue().games).sum();
+        bufferedSessions.addAndGet(-sessions);
+
+        try {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!deltas.isEmpty()) {
+                    jdbcTemplate.batchUpdate(FLUSH_SQL, deltas, deltas.size(), (ps, entry) -> {
+                        PlayerStatsDelta delta = entry.getValue();
+                        ps.setInt(1, delta.games);
+                        ps.setInt(2, delta.wins);
+                        ps.setInt(3, delta.highScore);
+                        ps.setBigDecimal(4, delta.softTokens);
+                        ps.setTimestamp(5, now);
+                        ps.setLong(6, entry.getKey());
+                    });
+                }
+                checkpointRepository.save(JournalCheckpoint.builder()
+                    .id(CHECKPOINT_ID)
+                    .segment(sealed.segment)
+                    .build());
+            });
+        } catch (RuntimeException e) {
+            // Still journaled in the sealed segment, which the next flush's checkpoint covers too
+            logger.error("Flushing stats for {} players failed, keeping them buffered", deltas.size(), e);
+            Generation next = current;
+            deltas.forEach(entry -> next.merge(entry.getKey(), entry.getValue()));
+            bufferedSessions.addAndGet(sessions);
+            return;
+        }
+
+        deleteSegmentsUpTo(sealed.segment);
+        Cache players = cacheManager.getCache(CacheConfig.PLAYERS);
+        if (players != null) {
+            deltas.forEach(entry -> players.evict(entry.getValue().walletAddress.toLowerCase()));
+        }
+        logger.debug("Flushed buffered stats for {} players", deltas.size());
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        flush();
+        journal.close();
+    }
+
+    private static int spread(Long playerId) {
+        int h = playerId.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Appends one write and returns its sequence number. Called under the rotation
+     * read lock, so the segment cannot change underneath.
+     */
+    private long appendToJournal(ByteBuffer buffer) throws IOException {
+        synchronized (this.journalLock) {
+            while (buffer.hasRemaining()) {
+                journal.write(buffer);
+            }
+            return ++appendedWrites;
+        }
+    }
+
+    /**
+     * Returns once the given write is on disk. One caller at a time forces the
+     * channel, covering every write appended before it started; callers arriving
+     * meanwhile wait and are usually covered by the next force.
+     */
+    private void awaitSync(long write) throws IOException {
+        syncLock.lock();
+        try {
+            while (syncedWrites < write) {
+                if (syncing) {
+                    syncDone.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                long covered;
+                synchronized (this.journalLock) {
+                    covered = appendedWrites;
+                }
+                syncLock.unlock();
+                boolean forced = false;
+                try {
+                    journal.force(false);
+                    forced = true;
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    if (forced) {
+                        syncedWrites = Math.max(syncedWrites, covered);
+                    }
+                    syncDone.signalAll();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void openSegment(long number) throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+        segment = number;
+        journal = FileChannel.open(segmentPath(number),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Buffers the entries of a leftover segment whose rewards committed and returns
+     * how many there were. A torn last line belongs to a session that never committed.
+     */
+    private int replay(Path path) throws IOException {
+        List<String[]> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            String[] fields = line.split(",");
+            if (fields.length == 7) {
+                entries.add(fields);
+            }
+        }
+
+        Set<Long> committed = new HashSet<>();
+        for (int from = 0; from < entries.size(); from += REPLAY_LOOKUP_SIZE) {
+            List<Long> rewardIds = new ArrayList<>();
+            for (String[] fields : entries.subList(from, Math.min(from + REPLAY_LOOKUP_SIZE, entries.size()))) {
+                rewardIds.add(parseRewardId(fields[0]));
+            }
+            String placeholders = String.join(",", Collections.nCopies(rewardIds.size(), "?"));
+            committed.addAll(jdbcTemplate.queryForList(
+                "SELECT id FROM rewards WHERE id IN (" + placeholders + ")", Long.class, rewardIds.toArray()));
+        }
+
+        int replayed = 0;
+        for (String[] fields : entries) {
+            if (!committed.contains(parseRewardId(fields[0]))) {
+                continue;
+            }
+            try {
+                current.merge(Long.parseLong(fields[1]), new PlayerStatsDelta(fields[2],
+                    Integer.parseInt(fields[3]), Integer.parseInt(fields[4]),
+                    Integer.parseInt(fields[5]), new BigDecimal(fields[6])));
+                replayed++;
+            } catch (NumberFormatException e) {
+                logger.warn("Skipping unreadable entry for reward {} in {}", fields[0], path.getFileName());
+            }
+        }
+        return replayed;
+    }
+
+    private static Long parseRewardId(String field) {
+        try {
+            return Long.parseLong(field);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private void deleteSegmentsUpTo(long number) {
+        try {
+            for (Path path : listSegments()) {
+                if (segmentNumber(path) <= number) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to delete flushed journal segments up to {}", number, e);
+        }
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get(journalDir))) {
+            return files
+                .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                .sorted((a, b) -> Long.compare(segmentNumber(a), segmentNumber(b)))
+                .toList();
+        }
+    }
+
+    private Path segmentPath(long number) {
+        return Paths.get(journalDir, SEGMENT_PREFIX + number + SEGMENT_SUFFIX);
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private record Session(Reward reward, Long playerId, PlayerStatsDelta delta) {
+    }
+
+    /**
+     * The deltas buffered for one journal segment, plus a count of sessions that
+     * have been journaled into it but not buffered or rolled back yet.
+     */
+    private static final class Generation {
+
+        private final long segment;
+        private final ConcurrentHashMap<Long, PlayerStatsDelta>[] stripes;
+        // Guarded by this
+        private int inFlight;
+
+        @SuppressWarnings("unchecked")
+        private Generation(long segment, int stripeSize) {
+            this.segment = segment;
+            this.stripes = new ConcurrentHashMap[stripeSize];
+            for (int i = 0; i < stripeSize; i++) {
+                stripes[i] = new ConcurrentHashMap<>();
+            }
+        }
+
+        private void merge(Long playerId, PlayerStatsDelta delta) {
+            stripes[spread(playerId) & (stripes.length - 1)].merge(playerId, delta, PlayerStatsDelta::combine);
+        }
+
+        private synchronized void acquire() {
+            inFlight++;
+        }
+
+        private synchronized void release() {
+            if (--inFlight == 0) {
+                notifyAll();
+            }
+        }
+
+        private synchronized boolean isIdle() {
+            if (inFlight > 0) {
+                return false;
+            }
+            for (ConcurrentHashMap<Long, PlayerStatsDelta> stripe : stripes) {
+                if (!stripe.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private synchronized void awaitReleased() {
+            boolean interrupted = false;
+            while (inFlight > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private List<Map.Entry<Long, PlayerStatsDelta>> drain() {
+            List<Map.Entry<Long, PlayerStatsDelta>> deltas = new ArrayList<>();
+            for (ConcurrentHashMap<Long, PlayerStatsDelta> stripe : stripes) {
+                for (Long playerId : stripe.keySet()) {
+                    PlayerStatsDelta delta = stripe.remove(playerId);
+                    if (delta != null) {
+                        deltas.add(Map.entry(playerId, delta));
+                    }
+                }
+            }
+            return deltas;
+        }
+    }
+
+    private static final class PlayerStatsDelta {
+
+        private final String walletAddress;
+        private final int games;
+        private final int wins;
+        private final int highScore;
+        private final BigDecimal softTokens;
+
+        private PlayerStatsDelta(String walletAddress, int games, int wins, int highScore, BigDecimal softTokens) {
+            this.walletAddress = walletAddress;
+            this.games = games;
+            this.wins = wins;
+            this.highScore = highScore;
+            this.softTokens = softTokens;
+        }
+
+        private PlayerStatsDelta combine(PlayerStatsDelta other) {
+            return new PlayerStatsDelta(walletAddress, games + other.games, wins + other.wins,
+                Math.max(highScore, other.highScore), softTokens.add(other.softTokens));
+        }
+    }
+}
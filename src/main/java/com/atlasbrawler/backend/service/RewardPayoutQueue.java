@@ -0,0 +1,279 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.domain.PayoutAttempt;
+import com.atlasbrawler.backend.domain.Reward;
+import com.atlasbrawler.backend.domain.Transaction;
+import com.atlasbrawler.backend.domain.enums.PayoutStatus;
+import com.atlasbrawler.backend.domain.enums.RewardStatus;
+import com.atlasbrawler.backend.domain.enums.TransactionType;
+import com.atlasbrawler.backend.repository.PayoutAttemptRepository;
+import com.atlasbrawler.backend.repository.RewardRepository;
+import com.atlasbrawler.backend.util.RewardMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settles claimed rewards in bulk. Claims only move a reward to QUEUED; every
+ * window the queue sums the queued rewards per wallet and pays them either in one
+ * reward-contract call or as one transfer per wallet.
+ *
+ * <p>Payouts are signed first and committed, with their rewards moved to SUBMITTING,
+ * a {@link PayoutAttempt} row and the ledger entries, before anything is broadcast.
+ * Rewards only become CLAIMED once the receipt confirms the transfer. A reverted or
+ * dropped payout puts its rewards back to QUEUED until they have been tried
+ * {@code rewards.payout.max-attempts} times, after which they are marked FAILED.
+ */
+@Service
+public class RewardPayoutQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(RewardPayoutQueue.class);
+
+    private final RewardRepository rewardRepository;
+    private final PayoutAttemptRepository payoutAttemptRepository;
+    private final BlockchainService blockchainService;
+    private final TransactionLedgerService ledgerService;
+    private final TransactionTemplate transactionTemplate;
+    private final RewardMetrics rewardMetrics;
+
+    @Value("${rewards.payout.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${rewards.payout.max-attempts:3}")
+    private int maxAttempts;
+
+    public RewardPayoutQueue(RewardRepository rewardRepository, PayoutAttemptRepository payoutAttemptRepository,
+                             BlockchainService blockchainService, TransactionLedgerService ledgerService,
+                             TransactionTemplate transactionTemplate, RewardMetrics rewardMetrics) {
+        this.rewardRepository = rewardRepository;
+        this.payoutAttemptRepository = payoutAttemptRepository;
+        this.blockchainService = blockchainService;
+        this.ledgerService = ledgerService;
+        this.transactionTemplate = transactionTemplate;
+        this.rewardMetrics = rewardMetrics;
+    }
+
+    /**
+     * One payout run. Runs are serialised, and a nonce resync requested since the last
+     * run (by a rejected or dropped payout) is applied first, so the counter is never
+     * reseeded while nonces reserved here are still waiting to be broadcast.
+     */
+    @Scheduled(fixedDelayString = "${rewards.payout.window-ms:15000}")
+    public synchronized void settleQueuedRewards() {
+        blockchainService.resyncNoncesIfRequested();
+
+        List<BlockchainService.PreparedPayout> payouts;
+        try {
+            payouts = transactionTemplate.execute(status -> submitQueuedRewards());
+        } catch (RuntimeException e) {
+            // Nothing was recorded, so the nonces reserved while signing were never used
+            blockchainService.releaseReservedNonces();
+            throw e;
+        }
+
+        for (int i = 0; i < payouts.size(); i++) {
+            BlockchainService.PreparedPayout payout = payouts.get(i);
+            if (!blockchainService.broadcastPayout(payout, outcome -> resolvePayout(payout.transactionHash(), outcome))) {
+                // Later payouts were signed with nonces past the rejected one and cannot be mined
+                payouts.subList(i, payouts.size())
+                    .forEach(skipped -> resolvePayout(skipped.transactionHash(), PayoutStatus.DROPPED));
+                return;
+            }
+        }
+    }
+
+    private List<BlockchainService.PreparedPayout> submitQueuedRewards() {
+        List<Reward> queued = rewardRepository.findWithPlayerByStatus(
+            RewardStatus.QUEUED, PageRequest.of(0, maxBatchSize));
+        if (queued.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, List<Reward>> byWallet = new LinkedHashMap<>();
+        for (Reward reward : queued) {
+            byWallet.computeIfAbsent(reward.getPlayer().getWalletAddress(), wallet -> new ArrayList<>()).add(reward);
+        }
+
+        logger.info("Submitting {} queued rewards for {} wallets", queued.size(), byWallet.size());
+
+        List<BlockchainService.PreparedPayout> payouts = new ArrayList<>();
+        List<PayoutAttempt> attempts = new ArrayList<>();
+        List<Transaction> ledgerEntries = new ArrayList<>(byWallet.size());
+        if (blockchainService.hasBatchTransferContract()) {
+            List<String> recipients = new ArrayList<>(byWallet.keySet());
+            List<BigDecimal> amounts = new ArrayList<>(recipients.size());
+            for (String wallet : recipients) {
+                amounts.add(sum(byWallet.get(wallet)));
+            }
+            try {
+                BlockchainService.PreparedPayout payout = blockchainService.prepareBatchTransfer(recipients, amounts);
+                payouts.add(payout);
+                attempts.add(attempt(payout, queued.size()));
+                byWallet.forEach((wallet, rewards) -> submit(payout, wallet, rewards, ledgerEntries));
+            } catch (Exception e) {
+                logger.error("Batch payout for {} wallets could not be prepared", recipients.size(), e);
+                queued.forEach(this::recordUnsentAttempt);
+            }
+        } else {
+            byWallet.forEach((wallet, rewards) -> {
+                try {
+                    BlockchainService.PreparedPayout payout = blockchainService.prepareTransfer(wallet, sum(rewards));
+                    payouts.add(payout);
+                    attempts.add(attempt(payout, rewards.size()));
+                    submit(payout, wallet, rewards, ledgerEntries);
+                } catch (Exception e) {
+                    logger.error("Payout of {} rewards to {} could not be prepared", rewards.size(), wallet, e);
+                    rewards.forEach(this::recordUnsentAttempt);
+                }
+            });
+        }
+
+        rewardRepository.saveAll(queued);
+        payoutAttemptRepository.saveAll(attempts);
+        ledgerService.recordAll(ledgerEntries);
+        countAfterCommit(RewardStatus.QUEUED, queued);
+        return payouts;
+    }
+
+    private void submit(BlockchainService.PreparedPayout payout, String wallet, List<Reward> rewards,
+                        List<Transaction> ledgerEntries) {
+        rewards.forEach(reward -> reward.markAsSubmitting(payout.transactionHash()));
+        ledgerEntries.add(payoutEntry(wallet, rewards, payout.transactionHash()));
+    }
+
+    private void recordUnsentAttempt(Reward reward) {
+        reward.recordPayoutAttempt();
+        if (reward.getPayoutAttemptCount() >= maxAttempts) {
+            reward.markAsFailed();
+        }
+    }
+
+    /**
+     * Applies a receipt outcome to the attempt and its rewards. Runs once per attempt;
+     * later reports for an attempt that is no longer SUBMITTING are ignored.
+     */
+    void resolvePayout(String txHash, PayoutStatus outcome) {
+        transactionTemplate.executeWithoutResult(status -> {
+            PayoutAttempt attempt = payoutAttemptRepository.findForUpdateByTransactionHash(txHash).orElse(null);
+            if (attempt == null || attempt.getStatus() != PayoutStatus.SUBMITTING) {
+                return;
+            }
+            attempt.markResolved(outcome);
+
+            List<Reward> rewards = rewardRepository.findByStatusAndTransactionHash(RewardStatus.SUBMITTING, txHash);
+            int failed = 0;
+            for (Reward reward : rewards) {
+                if (outcome == PayoutStatus.CONFIRMED) {
+                    reward.markAsClaimed(txHash);
+                } else if (reward.getPayoutAttemptCount() >= maxAttempts) {
+                    reward.markAsFailed();
+                    failed++;
+                } else {
+                    reward.markAsRequeued();
+                }
+            }
+            if (outcome == PayoutStatus.DROPPED) {
+                // No receipt will ever resolve the ledger rows of a payout that never made it on chain
+                ledgerService.markFailed(txHash);
+            }
+            payoutAttemptRepository.save(attempt);
+            rewardRepository.saveAll(rewards);
+            countAfterCommit(RewardStatus.SUBMITTING, rewards);
+
+            if (outcome == PayoutStatus.CONFIRMED) {
+                logger.info("Payout {} confirmed, {} rewards claimed", txHash, rewards.size());
+            } else {
+                logger.warn("Payout {} {}: {} rewards requeued, {} failed",
+                    txHash, outcome, rewards.size() - failed, failed);
+            }
+        });
+    }
+
+    /**
+     * Counts the rewards that left {@code from}, by the status they moved to, once the
+     * transaction commits. Rewards still in {@code from} are not counted.
+     */
+    private void countAfterCommit(RewardStatus from, List<Reward> rewards) {
+        Map<RewardStatus, Integer> moved = new EnumMap<>(RewardStatus.class);
+        for (Reward reward : rewards) {
+            if (reward.getStatus() != from) {
+                moved.merge(reward.getStatus(), 1, Integer::sum);
+            }
+        }
+        if (moved.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                moved.forEach((to, count) -> rewardMetrics.transition(from, to, count));
+            }
+        });
+    }
+
+    /**
+     * Re-attaches attempts that are still SUBMITTING but unknown to the receipt tracker,
+     * e.g. after a restart or when applying an outcome failed.
+     */
+    @Scheduled(fixedDelayString = "${rewards.payout.resume-interval-ms:60000}")
+    public void resumeSubmittedPayouts() {
+        long lastId = 0;
+        while (true) {
+            List<PayoutAttempt> attempts = payoutAttemptRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                PayoutStatus.SUBMITTING, lastId, PageRequest.of(0, maxBatchSize));
+            for (PayoutAttempt attempt : attempts) {
+                String txHash = attempt.getTransactionHash();
+                blockchainService.resumePayout(txHash, attempt.getToAddress(), attempt.getAmount(),
+                    outcome -> resolvePayout(txHash, outcome));
+            }
+            if (attempts.size() < maxBatchSize) {
+                return;
+            }
+            lastId = attempts.get(attempts.size() - 1).getId();
+        }
+    }
+
+    private PayoutAttempt attempt(BlockchainService.PreparedPayout payout, int rewardCount) {
+        return PayoutAttempt.builder()
+            .transactionHash(payout.transactionHash())
+            .fromAddress(blockchainService.getHotWalletAddress())
+            .toAddress(payout.toAddress())
+            .nonce(payout.nonce().longValueExact())
+            .amount(payout.amount())
+            .rewardCount(rewardCount)
+            .build();
+    }
+
+    private Transaction payoutEntry(String wallet, List<Reward> rewards, String txHash) {
+        return Transaction.builder()
+            .player(rewards.get(0).getPlayer())
+            .transactionType(TransactionType.REWARD_CLAIM)
+            .amount(sum(rewards))
+            .transactionHash(txHash)
+            .fromAddress(blockchainService.getHotWalletAddress())
+            .toAddress(wallet)
+            .description("Payout of " + rewards.size() + " rewards")
+            .build();
+    }
+
+    private static BigDecimal sum(List<Reward> rewards) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Reward reward : rewards) {
+            total = total.add(reward.getAmount());
+        }
+        return total;
+    }
+}
@@ -1,21 +1,44 @@
 package com.atlasbrawler.backend.service;
 
+import com.atlasbrawler.backend.config.CacheConfig;
 import com.atlasbrawler.backend.domain.Player;
 import com.atlasbrawler.backend.domain.Reward;
 import com.atlasbrawler.backend.domain.enums.RewardStatus;
 import com.atlasbrawler.backend.domain.enums.RewardType;
+import com.atlasbrawler.backend.dto.BulkGameSessionResponse;
 import com.atlasbrawler.backend.dto.GameSessionRequest;
+import com.atlasbrawler.backend.dto.KeysetPage;
 import com.atlasbrawler.backend.dto.RewardClaimRequest;
+import com.atlasbrawler.backend.dto.RewardSummary;
 import com.atlasbrawler.backend.repository.PlayerRepository;
 import com.atlasbrawler.backend.repository.RewardRepository;
+import com.atlasbrawler.backend.util.RateLimiter;
+import com.atlasbrawler.backend.util.RewardMetrics;
 import com.atlasbrawler.backend.util.SignatureUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class RewardService {
@@ -23,43 +46,152 @@ public class RewardService {
     private static final Logger logger = LoggerFactory.getLogger(RewardService.class);
     private static final BigDecimal SOFT_TOKEN_PER_WAVE = new BigDecimal("10");
     private static final BigDecimal CUSD_REWARD_BASE = new BigDecimal("0.01");
+    private static final int MAX_PAGE_SIZE = 100;
     
     private final RewardRepository rewardRepository;
     private final PlayerRepository playerRepository;
     private final SignatureUtil signatureUtil;
-    private final BlockchainService blockchainService;
+    private final PlayerStatsWriteBehind statsWriteBehind;
+    private final LeaderboardService leaderboardService;
+    private final CacheManager cacheManager;
+    private final RewardMetrics rewardMetrics;
+    private final RateLimiter rateLimiter;
     
     public RewardService(RewardRepository rewardRepository,
                         PlayerRepository playerRepository,
                         SignatureUtil signatureUtil,
-                        BlockchainService blockchainService) {
+                        PlayerStatsWriteBehind statsWriteBehind,
+                        LeaderboardService leaderboardService,
+                        CacheManager cacheManager,
+                        RewardMetrics rewardMetrics,
+                        RateLimiter rateLimiter) {
         this.rewardRepository = rewardRepository;
         this.playerRepository = playerRepository;
         this.signatureUtil = signatureUtil;
-        this.blockchainService = blockchainService;
+        this.statsWriteBehind = statsWriteBehind;
+        this.leaderboardService = leaderboardService;
+        this.cacheManager = cacheManager;
+        this.rewardMetrics = rewardMetrics;
+        this.rateLimiter = rateLimiter;
     }
     
     @Transactional
     public Reward processGameSession(GameSessionRequest request) {
+        rewardMetrics.timeTransaction("rewards.session.process");
         Player player = playerRepository.findByWalletAddress(request.getWalletAddress())
             .orElseThrow(() -> new IllegalArgumentException("Player not found"));
         
-        player.incrementGamesPlayed();
+        BigDecimal softTokenReward = softTokensFor(request);
+        Reward reward = sessionReward(player, request);
         
-        if (Boolean.TRUE.equals(request.getIsWin())) {
-            player.incrementWins();
+        if (statsWriteBehind.isEnabled()) {
+            // Stats are buffered once this transaction commits and applied to the players row in batches
+            reward = rewardRepository.save(reward);
+            statsWriteBehind.record(reward, Boolean.TRUE.equals(request.getIsWin()), request.getScore(), softTokenReward);
+        } else {
+            // One atomic UPDATE, so concurrent sessions neither lose increments nor hit version conflicts
+            playerRepository.applySessions(player.getId(), 1, Boolean.TRUE.equals(request.getIsWin()) ? 1 : 0,
+                request.getScore(), softTokenReward, LocalDateTime.now());
+            reward = rewardRepository.save(reward);
         }
         
-        if (request.getScore() > player.getHighScore()) {
-            player.setHighScore(request.getScore());
+        boolean win = Boolean.TRUE.equals(request.getIsWin());
+        int score = request.getScore();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // Evicted only now, so a read racing the commit cannot cache the old stats again
+                Cache playerCache = cacheManager.getCache(CacheConfig.PLAYERS);
+                if (playerCache != null) {
+                    playerCache.evict(player.getWalletAddress().toLowerCase());
+                }
+                leaderboardService.recordSession(player, score, win);
+                rewardMetrics.created(RewardType.WAVE_SURVIVAL, 1);
+            }
+        });
+        
+        logger.info("Created reward {} for player {}", reward.getId(), player.getWalletAddress());
+        
+        return reward;
+    }
+    
+    /**
+     * Ingests many finished sessions in one transaction. Players are loaded with one
+     * query, rewards are inserted through Hibernate's JDBC batching, and each player's
+     * stats move once by the sum of their sessions. Sessions from unknown wallets are
+     * skipped and reported back.
+     */
+    @Transactional
+    public BulkGameSessionResponse processGameSessions(List<GameSessionRequest> sessions) {
+        rewardMetrics.timeTransaction("rewards.session.process.bulk");
+        // Keyed by lower-cased wallet, so sessions match their player whatever the address case
+        Set<String> wallets = new HashSet<>();
+        sessions.forEach(session -> wallets.add(session.getWalletAddress().toLowerCase()));
+        Map<String, Player> players = new HashMap<>();
+        playerRepository.findByLowerCaseWalletAddressIn(wallets)
+            .forEach(player -> players.put(player.getWalletAddress().toLowerCase(), player));
+        
+        List<Reward> rewards = new ArrayList<>(sessions.size());
+        List<GameSessionRequest> accepted = new ArrayList<>(sessions.size());
+        Map<Long, SessionTotals> totals = new HashMap<>();
+        Set<String> unknownWallets = new LinkedHashSet<>();
+        for (GameSessionRequest session : sessions) {
+            Player player = players.get(session.getWalletAddress().toLowerCase());
+            if (player == null) {
+                unknownWallets.add(session.getWalletAddress());
+                continue;
+            }
+            
+            boolean win = Boolean.TRUE.equals(session.getIsWin());
+            BigDecimal softTokenReward = softTokensFor(session);
+            Reward reward = sessionReward(player, session);
+            rewards.add(reward);
+            accepted.add(session);
+            if (statsWriteBehind.isEnabled()) {
+                // Journaled just before commit, by which point saveAll has given the reward its id
+                statsWriteBehind.record(reward, win, session.getScore(), softTokenReward);
+            } else {
+                totals.merge(player.getId(), new SessionTotals(1, win ? 1 : 0, session.getScore(), softTokenReward),
+                    SessionTotals::combine);
+            }
         }
         
-        BigDecimal softTokenReward = SOFT_TOKEN_PER_WAVE.multiply(
-            new BigDecimal(request.getWavesSurvived())
-        );
-        player.addSoftTokens(softTokenReward);
+        rewards = rewardRepository.saveAll(rewards);
+        LocalDateTime now = LocalDateTime.now();
+        totals.forEach((playerId, total) -> playerRepository.applySessions(
+            playerId, total.games(), total.wins(), total.highScore(), total.softTokens(), now));
+        
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Cache playerCache = cacheManager.getCache(CacheConfig.PLAYERS);
+                for (GameSessionRequest session : accepted) {
+                    Player player = players.get(session.getWalletAddress().toLowerCase());
+                    if (playerCache != null) {
+                        playerCache.evict(player.getWalletAddress().toLowerCase());
+                    }
+                    leaderboardService.recordSession(player, session.getScore(), Boolean.TRUE.equals(session.getIsWin()));
+                }
+                rewardMetrics.created(RewardType.WAVE_SURVIVAL, accepted.size());
+            }
+        });
+        
+        logger.info("Ingested {} sessions for {} players ({} unknown wallets)",
+            accepted.size(), players.size(), unknownWallets.size());
         
-        Reward reward = Reward.builder()
+        return BulkGameSessionResponse.builder()
+            .processed(accepted.size())
+            .rewardIds(rewards.stream().map(Reward::getId).toList())
+            .unknownWallets(new ArrayList<>(unknownWallets))
+            .build();
+    }
+    
+    private static BigDecimal softTokensFor(GameSessionRequest request) {
+        return SOFT_TOKEN_PER_WAVE.multiply(new BigDecimal(request.getWavesSurvived()));
+    }
+    
+    private static Reward sessionReward(Player player, GameSessionRequest request) {
+        return Reward.builder()
             .player(player)
             .rewardType(RewardType.WAVE_SURVIVAL)
             .amount(CUSD_REWARD_BASE)
@@ -68,25 +200,24 @@ public class RewardService {
             .score(request.getScore())
             .reason("Wave survival reward")
             .build();
-        
-        playerRepository.save(player);
-        reward = rewardRepository.save(reward);
-        
-        logger.info("Created reward {} for player {}", reward.getId(), player.getWalletAddress());
-        
-        return reward;
     }
     
     @Transactional
     public Reward claimReward(RewardClaimRequest request) {
-        Reward reward = rewardRepository.findById(request.getRewardId())
-            .orElseThrow(() -> new IllegalArgumentException("Reward not found"));
+        rewardMetrics.timeTransaction("rewards.claim");
+        Reward reward = rewardRepository.findById(request.getRewardId()).orElse(null);
+        if (reward == null) {
+            rewardMetrics.claimRejected("not_found");
+            throw new IllegalArgumentException("Reward not found");
+        }
         
         if (reward.getStatus() != RewardStatus.PENDING) {
+            rewardMetrics.claimRejected("not_pending");
             throw new IllegalStateException("Reward already claimed or invalid");
         }
         
         if (!reward.getPlayer().getWalletAddress().equalsIgnoreCase(request.getWalletAddress())) {
+            rewardMetrics.claimRejected("wrong_wallet");
             throw new SecurityException("Unauthorized claim attempt");
         }
         
@@ -94,32 +225,77 @@ public class RewardService {
             "Claim reward: " + request.getRewardId(),
             request.getSignature(),
             request.getWalletAddress())) {
+            rewardMetrics.claimRejected("invalid_signature");
             throw new SecurityException("Invalid signature");
         }
+        // Charged only once the wallet has proven it signed, so nobody can drain another wallet's bucket
+        rateLimiter.acquire(RateLimiter.Route.REWARD_CLAIM, RateLimiter.KeyType.WALLET, request.getWalletAddress());
         
-        try {
-            String txHash = blockchainService.transferReward(
-                request.getWalletAddress(),
-                reward.getAmount()
-            );
-            
-            reward.markAsClaimed(txHash);
-            reward = rewardRepository.save(reward);
-            
-            logger.info("Reward {} claimed successfully. TX: {}", reward.getId(), txHash);
-            
-            return reward;
-        } catch (Exception e) {
-            logger.error("Failed to claim reward {}", request.getRewardId(), e);
-            reward.markAsFailed();
-            rewardRepository.save(reward);
-            throw new RuntimeException("Failed to process claim", e);
-        }
+        reward.markAsQueued();
+        reward = rewardRepository.save(reward);
+        rewardMetrics.transition(RewardStatus.PENDING, RewardStatus.QUEUED, 1);
+        
+        logger.info("Reward {} queued for payout", reward.getId());
+        
+        return reward;
     }
     
-    public List<Reward> getPendingRewards(String walletAddress) {
+    /**
+     * Pending rewards newest first, {@code limit} at a time. The opaque cursor encodes the
+     * (createdAt, id) of the last row returned, and one extra row is read to tell whether
+     * another page exists, so no count query is needed.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<RewardSummary> getPendingRewards(String walletAddress, String cursor, int limit) {
         Player player = playerRepository.findByWalletAddress(walletAddress)
             .orElseThrow(() -> new IllegalArgumentException("Player not found"));
-        return rewardRepository.findByPlayerIdAndStatus(player.getId(), RewardStatus.PENDING);
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        PageRequest page = PageRequest.of(0, size + 1);
+        
+        List<RewardSummary> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = rewardRepository.findSummaries(player.getId(), RewardStatus.PENDING, page);
+        } else {
+            CursorPosition position = decodeCursor(cursor);
+            rows = rewardRepository.findSummariesBefore(player.getId(), RewardStatus.PENDING,
+                position.createdAt(), position.id(), page);
+        }
+        
+        boolean hasMore = rows.size() > size;
+        List<RewardSummary> items = hasMore ? rows.subList(0, size) : rows;
+        RewardSummary last = items.isEmpty() ? null : items.get(items.size() - 1);
+        return KeysetPage.<RewardSummary>builder()
+            .items(items)
+            .nextCursor(hasMore ? encodeCursor(last.getCreatedAt(), last.getId()) : null)
+            .hasMore(hasMore)
+            .build();
+    }
+    
+    private static String encodeCursor(LocalDateTime createdAt, Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static CursorPosition decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new CursorPosition(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+    
+    private record CursorPosition(LocalDateTime createdAt, long id) {
+    }
+    
+    private record SessionTotals(int games, int wins, int highScore, BigDecimal softTokens) {
+        
+        private SessionTotals combine(SessionTotals other) {
+            return new SessionTotals(games + other.games, wins + other.wins,
+                Math.max(highScore, other.highScore), softTokens.add(other.softTokens));
+        }
     }
 }
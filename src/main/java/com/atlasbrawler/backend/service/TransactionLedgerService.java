@@ -0,0 +1,251 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.domain.IdSequences;
+import com.atlasbrawler.backend.domain.Player;
+import com.atlasbrawler.backend.domain.Transaction;
+import com.atlasbrawler.backend.domain.enums.TransactionStatus;
+import com.atlasbrawler.backend.domain.enums.TransactionType;
+import com.atlasbrawler.backend.dto.KeysetPage;
+import com.atlasbrawler.backend.dto.TransactionResponse;
+import com.atlasbrawler.backend.repository.PlayerRepository;
+import com.atlasbrawler.backend.repository.TransactionRepository;
+import com.atlasbrawler.backend.util.JsonRpcBatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Ledger of on-chain movements in {@code transactions}. Payout rows are written in
+ * one JDBC batch per settlement run and resolved later from the receipt tracker, or
+ * from the node when the tracker no longer knows them; deposits are written and
+ * confirmed by {@link DepositService}.
+ */
+@Service
+public class TransactionLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionLedgerService.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String INSERT_SQL =
+        "INSERT INTO transactions (id, player_id, transaction_type, amount, status, transaction_hash, " +
+        "from_address, to_address, description, created_at, updated_at) " +
+        "VALUES (nextval('" + IdSequences.TRANSACTIONS + "'), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (transaction_hash, player_id) DO NOTHING";
+
+    /**
+     * Deposits are excluded when confirming: they only count once DepositService has credited them.
+     */
+    private static final Set<TransactionType> CONFIRMABLE = EnumSet.complementOf(EnumSet.of(TransactionType.DEPOSIT));
+    private static final Set<TransactionType> ALL_TYPES = EnumSet.allOf(TransactionType.class);
+
+    private final TransactionRepository transactionRepository;
+    private final PlayerRepository playerRepository;
+    private final TransactionReceiptTracker receiptTracker;
+    private final JdbcTemplate jdbcTemplate;
+    private final Web3j web3j;
+    private final JsonRpcBatcher rpcBatcher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ledger.reconcile.batch-size:500}")
+    private int reconcileBatchSize;
+
+    @Value("${ledger.reconcile.stale-batch-size:100}")
+    private int staleBatchSize;
+
+    @Value("${celo.receipt.retention-minutes:30}")
+    private long receiptRetentionMinutes;
+
+    private String staleCursor = "";
+
+    public TransactionLedgerService(TransactionRepository transactionRepository,
+                                    PlayerRepository playerRepository,
+                                    TransactionReceiptTracker receiptTracker,
+                                    JdbcTemplate jdbcTemplate,
+                                    Web3j web3j,
+                                    JsonRpcBatcher rpcBatcher,
+                                    TransactionTemplate transactionTemplate) {
+        this.transactionRepository = transactionRepository;
+        this.playerRepository = playerRepository;
+        this.receiptTracker = receiptTracker;
+        this.jdbcTemplate = jdbcTemplate;
+        this.web3j = web3j;
+        this.rpcBatcher = rpcBatcher;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Inserts the entries as PENDING rows in one batch, in the caller's transaction.
+     * Entries need a player with an id; re-recording the same (hash, player) is a no-op.
+     */
+    public void recordAll(List<Transaction> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getPlayer().getId());
+            ps.setString(2, entry.getTransactionType().name());
+            ps.setBigDecimal(3, entry.getAmount());
+            ps.setString(4, TransactionStatus.PENDING.name());
+            ps.setString(5, entry.getTransactionHash());
+            ps.setString(6, entry.getFromAddress());
+            ps.setString(7, entry.getToAddress());
+            ps.setString(8, entry.getDescription());
+            ps.setTimestamp(9, now);
+            ps.setTimestamp(10, now);
+        });
+        logger.debug("Recorded {} ledger entries", entries.size());
+    }
+
+    /**
+     * Settles PENDING rows whose receipts the tracker has resolved. Running on a
+     * schedule rather than from the receipt callback means a receipt that lands
+     * before the ledger row commits is still picked up on the next pass.
+     *
+     * <p>Rows the tracker does not know, because they were tracked before a restart
+     * or are older than its retention window, are looked up with batched
+     * {@code eth_getTransactionReceipt} calls. Older rows are walked
+     * {@code ledger.reconcile.stale-batch-size} hashes per pass, wrapping around
+     * after the last one, so rows that never resolve do not starve the rest.
+     */
+    @Scheduled(fixedDelayString = "${ledger.reconcile.interval-ms:10000}")
+    public void reconcilePending() {
+        LocalDateTime trackedSince = LocalDateTime.now().minusMinutes(receiptRetentionMinutes);
+        List<String> recent = transactionRepository.findHashesByStatusCreatedAfter(TransactionStatus.PENDING,
+            trackedSince, PageRequest.of(0, reconcileBatchSize));
+
+        Map<String, Resolution> resolutions = new HashMap<>();
+        List<String> untracked = new ArrayList<>();
+        for (String hash : recent) {
+            TransactionReceiptTracker.TrackedTransaction tracked = receiptTracker.find(hash).orElse(null);
+            if (tracked == null) {
+                untracked.add(hash);
+            } else if (tracked.getStatus() != TransactionStatus.PENDING) {
+                resolutions.put(hash, new Resolution(tracked.getStatus(), tracked.getBlockNumber()));
+            }
+        }
+        untracked.addAll(nextStaleHashes(trackedSince));
+        resolutions.putAll(lookUpReceipts(untracked));
+        if (resolutions.isEmpty()) {
+            return;
+        }
+
+        Integer resolved = transactionTemplate.execute(status -> {
+            int updated = 0;
+            LocalDateTime now = LocalDateTime.now();
+            for (Map.Entry<String, Resolution> entry : resolutions.entrySet()) {
+                boolean confirmed = entry.getValue().status() == TransactionStatus.CONFIRMED;
+                updated += transactionRepository.resolvePending(entry.getKey(), entry.getValue().status(),
+                    entry.getValue().blockNumber(), now, confirmed ? CONFIRMABLE : ALL_TYPES);
+            }
+            return updated;
+        });
+        if (resolved != null && resolved > 0) {
+            logger.info("Resolved {} pending ledger entries", resolved);
+        }
+    }
+
+    private List<String> nextStaleHashes(LocalDateTime createdBefore) {
+        List<String> hashes = transactionRepository.findHashesByStatusCreatedBefore(TransactionStatus.PENDING,
+            createdBefore, staleCursor, PageRequest.of(0, staleBatchSize));
+        staleCursor = hashes.size() < staleBatchSize ? "" : hashes.get(hashes.size() - 1);
+        return hashes;
+    }
+
+    private Map<String, Resolution> lookUpReceipts(List<String> hashes) {
+        Map<String, Resolution> found = new HashMap<>();
+        if (hashes.isEmpty()) {
+            return found;
+        }
+        List<CompletableFuture<EthGetTransactionReceipt>> lookups = rpcBatcher.submitAll(
+            hashes.stream().map(web3j::ethGetTransactionReceipt).toList());
+        for (int i = 0; i < hashes.size(); i++) {
+            String hash = hashes.get(i);
+            try {
+                EthGetTransactionReceipt response = lookups.get(i).join();
+                if (response.hasError()) {
+                    continue;
+                }
+                TransactionReceipt receipt = response.getTransactionReceipt().orElse(null);
+                if (receipt != null) {
+                    found.put(hash, new Resolution(
+                        receipt.isStatusOK() ? TransactionStatus.CONFIRMED : TransactionStatus.FAILED,
+                        receipt.getBlockNumber().longValue()));
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Receipt lookup failed for ledger TX {}, retrying next pass", hash, e);
+            }
+        }
+        logger.debug("Looked up {} untracked ledger receipts, {} found", hashes.size(), found.size());
+        return found;
+    }
+
+    /**
+     * Fails the PENDING rows of a transaction known never to have been mined.
+     */
+    @Transactional
+    public int markFailed(String txHash) {
+        return transactionRepository.resolvePending(txHash, TransactionStatus.FAILED, null,
+            LocalDateTime.now(), ALL_TYPES);
+    }
+
+    /**
+     * Newest-first history for a player. The cursor is the id of the last row of the
+     * previous page, so each page is a range scan on (player_id, id) however deep it is.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<TransactionResponse> getHistory(String walletAddress, Long cursor, int limit) {
+        Player player = playerRepository.findByWalletAddressIgnoreCase(walletAddress)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Player not found"));
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        PageRequest page = PageRequest.of(0, size + 1);
+
+        List<Transaction> rows = cursor == null
+            ? transactionRepository.findByPlayerIdOrderByIdDesc(player.getId(), page)
+            : transactionRepository.findByPlayerIdAndIdLessThanOrderByIdDesc(player.getId(), cursor, page);
+
+        boolean hasMore = rows.size() > size;
+        List<Transaction> items = hasMore ? rows.subList(0, size) : rows;
+        return KeysetPage.<TransactionResponse>builder()
+            .items(items.stream().map(this::toResponse).toList())
+            .nextCursor(hasMore ? String.valueOf(items.get(items.size() - 1).getId()) : null)
+            .hasMore(hasMore)
+            .build();
+    }
+
+    private record Resolution(TransactionStatus status, Long blockNumber) {
+    }
+
+    TransactionResponse toResponse(Transaction transaction) {
+        return TransactionResponse.builder()
+            .transactionHash(transaction.getTransactionHash())
+            .status(transaction.getStatus().name())
+            .amount(transaction.getAmount())
+            .fromAddress(transaction.getFromAddress())
+            .toAddress(transaction.getToAddress() != null ? transaction.getToAddress() : "contract-creation")
+            .blockNumber(transaction.getBlockNumber())
+            .transactionType(transaction.getTransactionType().name())
+            .createdAt(transaction.getCreatedAt())
+            .build();
+    }
+}
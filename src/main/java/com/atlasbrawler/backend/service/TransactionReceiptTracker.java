@@ -0,0 +1,307 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.domain.enums.TransactionStatus;
+import com.atlasbrawler.backend.util.ChainHeadTracker;
+import com.atlasbrawler.backend.util.JsonRpcBatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Tracks submitted transactions in the background instead of blocking request threads.
+ * A single scheduled poller asks for the receipts of every outstanding hash through
+ * the {@link JsonRpcBatcher} and fires the registered callback once a receipt shows up
+ * or the timeout passes without one.
+ * Lookups only go out once per new block reported by the {@link ChainHeadTracker},
+ * which starts a round on {@code chainIoExecutor} as soon as the head advances; the
+ * scheduled poll picks up newly tracked hashes and timeouts, and any block whose
+ * round was skipped.
+ * The time from tracking to resolution is recorded as {@code chain.receipt.wait},
+ * tagged confirmed, reverted or timed_out.
+ */
+@Service
+public class TransactionReceiptTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionReceiptTracker.class);
+
+    private final Web3j web3j;
+    private final JsonRpcBatcher rpcBatcher;
+    private final ChainHeadTracker headTracker;
+    private final MeterRegistry meterRegistry;
+    private final Executor chainIoExecutor;
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private final Map<String, TrackedTransaction> pending = new ConcurrentHashMap<>();
+    private final Map<String, TrackedTransaction> completed = new ConcurrentHashMap<>();
+
+    @Value("${celo.receipt.timeout-seconds:300}")
+    private long timeoutSeconds;
+
+    @Value("${celo.receipt.retention-minutes:30}")
+    private long retentionMinutes;
+
+    // Only touched by the poll holding the polling flag
+    private BigInteger lastPolledHead;
+    private volatile boolean newlyTracked;
+
+    public TransactionReceiptTracker(Web3j web3j, JsonRpcBatcher rpcBatcher, ChainHeadTracker headTracker,
+                                     MeterRegistry meterRegistry,
+                                     @Qualifier("chainIoExecutor") Executor chainIoExecutor) {
+        this.web3j = web3j;
+        this.rpcBatcher = rpcBatcher;
+        this.headTracker = headTracker;
+        this.meterRegistry = meterRegistry;
+        this.chainIoExecutor = chainIoExecutor;
+    }
+
+    @PostConstruct
+    void listenForNewHeads() {
+        headTracker.addHeadListener(head -> {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                chainIoExecutor.execute(this::pollReceipts);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Receipt poll for block {} rejected, leaving it to the scheduled poll", head);
+            }
+        });
+    }
+
+    /**
+     * Registers a broadcast transaction for receipt polling. The callback runs once: with
+     * CONFIRMED or FAILED when the receipt arrives, on whichever thread completes the
+     * receipt lookup (usually the RPC client's callback thread, not the poller), or still
+     * PENDING with {@link TrackedTransaction#isTimedOut()} set, on the poller thread, when
+     * none arrived in time. Callbacks must therefore not assume they run alone with any
+     * scheduled job. Tracking a hash whose last round timed out starts a new round.
+     */
+    public TrackedTransaction track(String txHash, String fromAddress, String toAddress,
+                                    BigDecimal amount, Consumer<TrackedTransaction> onResolved) {
+        String key = normalize(txHash);
+        TrackedTransaction existing = find(key).orElse(null);
+        if (existing != null && !(existing.isTimedOut() && completed.remove(key, existing))) {
+            return existing;
+        }
+
+        TrackedTransaction tracked = new TrackedTransaction(txHash, fromAddress, toAddress, amount, onResolved);
+        TrackedTransaction raced = pending.putIfAbsent(key, tracked);
+        if (raced != null) {
+            return raced;
+        }
+
+        newlyTracked = true;
+        logger.debug("Tracking receipt for TX: {}", txHash);
+        return tracked;
+    }
+
+    public Optional<TrackedTransaction> find(String txHash) {
+        String key = normalize(txHash);
+        TrackedTransaction tracked = pending.get(key);
+        if (tracked == null) {
+            tracked = completed.get(key);
+        }
+        return Optional.ofNullable(tracked);
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Skips the lookup round unless the head moved or something new was tracked since
+     * the last round; receipts cannot appear between blocks. Without a known head
+     * (tracker not seeded yet or failing) every cycle polls, as before. Runs from the
+     * schedule and from head advances, one round at a time.
+     */
+    @Scheduled(fixedDelayString = "${celo.receipt.poll-interval-ms:500}")
+    public void pollReceipts() {
+        // A round already running covers this one; if the head moved meanwhile the next round sees it
+        if (!polling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            pollOnce();
+        } finally {
+            polling.set(false);
+        }
+    }
+
+    private void pollOnce() {
+        evictExpired();
+
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        BigInteger head = headTracker.getHead();
+        if (head != null && head.equals(lastPolledHead) && !newlyTracked) {
+            return;
+        }
+        newlyTracked = false;
+
+        AtomicBoolean failed = new AtomicBoolean();
+        List<CompletableFuture<Void>> polls = new ArrayList<>(pending.size());
+        for (TrackedTransaction tracked : pending.values()) {
+            polls.add(rpcBatcher.submit(web3j.ethGetTransactionReceipt(tracked.getTransactionHash()))
+                .thenAccept(this::handleReceipt)
+                .exceptionally(e -> {
+                    logger.warn("Receipt lookup failed for TX {}, retrying next cycle", tracked.getTransactionHash(), e);
+                    failed.set(true);
+                    return null;
+                }));
+        }
+        CompletableFuture.allOf(polls.toArray(new CompletableFuture[0])).join();
+        lastPolledHead = failed.get() ? null : head;
+    }
+
+    private void handleReceipt(EthGetTransactionReceipt response) {
+        if (!response.hasError()) {
+            response.getTransactionReceipt().ifPresent(this::complete);
+        }
+    }
+
+    private void complete(TransactionReceipt receipt) {
+        String key = normalize(receipt.getTransactionHash());
+        TrackedTransaction tracked = pending.remove(key);
+        if (tracked == null) {
+            return;
+        }
+
+        tracked.resolve(receipt);
+        completed.put(key, tracked);
+        logger.info("Receipt for TX {} resolved as {} in block {}",
+            tracked.getTransactionHash(), tracked.getStatus(), tracked.getBlockNumber());
+        recordWait(tracked, tracked.getStatus() == TransactionStatus.CONFIRMED ? "confirmed" : "reverted");
+        notifyResolved(tracked);
+    }
+
+    private void evictExpired() {
+        Instant now = Instant.now();
+        Instant pendingCutoff = now.minus(Duration.ofSeconds(timeoutSeconds));
+        Instant completedCutoff = now.minus(Duration.ofMinutes(retentionMinutes));
+
+        List<TrackedTransaction> timedOut = new ArrayList<>();
+        pending.entrySet().removeIf(entry -> {
+            if (entry.getValue().getSubmittedAt().isBefore(pendingCutoff)) {
+                logger.warn("Transaction receipt not found within timeout for TX: {}", entry.getValue().getTransactionHash());
+                entry.getValue().timedOut = true;
+                completed.put(entry.getKey(), entry.getValue());
+                timedOut.add(entry.getValue());
+                return true;
+            }
+            return false;
+        });
+        completed.values().removeIf(tracked -> tracked.getSubmittedAt().isBefore(completedCutoff));
+        for (TrackedTransaction tracked : timedOut) {
+            recordWait(tracked, "timed_out");
+            notifyResolved(tracked);
+        }
+    }
+
+    private void recordWait(TrackedTransaction tracked, String outcome) {
+        Timer.builder("chain.receipt.wait")
+            .description("Time from tracking a transaction until its receipt arrives or tracking times out")
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(Duration.between(tracked.getSubmittedAt(), Instant.now()));
+    }
+
+    private void notifyResolved(TrackedTransaction tracked) {
+        if (tracked.onResolved == null) {
+            return;
+        }
+        try {
+            tracked.onResolved.accept(tracked);
+        } catch (Exception e) {
+            logger.error("Resolution handler failed for TX: {}", tracked.getTransactionHash(), e);
+        }
+    }
+
+    private static String normalize(String txHash) {
+        return txHash.toLowerCase();
+    }
+
+    public static class TrackedTransaction {
+
+        private final String transactionHash;
+        private final String fromAddress;
+        private final String toAddress;
+        private final BigDecimal amount;
+        private final Instant submittedAt = Instant.now();
+        private final Consumer<TrackedTransaction> onResolved;
+        private volatile TransactionStatus status = TransactionStatus.PENDING;
+        private volatile Long blockNumber;
+        private volatile boolean timedOut;
+
+        TrackedTransaction(String transactionHash, String fromAddress, String toAddress,
+                           BigDecimal amount, Consumer<TrackedTransaction> onResolved) {
+            this.transactionHash = transactionHash;
+            this.fromAddress = fromAddress;
+            this.toAddress = toAddress;
+            this.amount = amount;
+            this.onResolved = onResolved;
+        }
+
+        void resolve(TransactionReceipt receipt) {
+            this.blockNumber = receipt.getBlockNumber() != null ? receipt.getBlockNumber().longValue() : null;
+            this.status = receipt.isStatusOK() ? TransactionStatus.CONFIRMED : TransactionStatus.FAILED;
+        }
+
+        public String getTransactionHash() {
+            return transactionHash;
+        }
+
+        public String getFromAddress() {
+            return fromAddress;
+        }
+
+        public String getToAddress() {
+            return toAddress;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public Instant getSubmittedAt() {
+            return submittedAt;
+        }
+
+        public TransactionStatus getStatus() {
+            return status;
+        }
+
+        public Long getBlockNumber() {
+            return blockNumber;
+        }
+
+        public boolean isTimedOut() {
+            return timedOut;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.atlasbrawler.backend.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Single source of the latest block number. One scheduled {@code eth_blockNumber}
+ * call per interval replaces per-request lookups, and registered listeners hear
+ * about every head advance.
+ */
+@Component
+public class ChainHeadTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChainHeadTracker.class);
+
+    private final Web3j web3j;
+    private final JsonRpcBatcher rpcBatcher;
+    private final AtomicReference<BigInteger> head = new AtomicReference<>();
+    private final List<Consumer<BigInteger>> headListeners = new CopyOnWriteArrayList<>();
+
+    public ChainHeadTracker(Web3j web3j, JsonRpcBatcher rpcBatcher, MeterRegistry meterRegistry) {
+        this.web3j = web3j;
+        this.rpcBatcher = rpcBatcher;
+        meterRegistry.gauge("chain.head", head, ref -> ref.get() == null ? 0 : ref.get().doubleValue());
+    }
+
+    /**
+     * Latest known block number, or null before the first successful poll.
+     */
+    public BigInteger getHead() {
+        return head.get();
+    }
+
+    /**
+     * Calls the listener with the new block number whenever the head advances. It runs
+     * on the thread that saw the new head, usually the poller, so it must hand any
+     * blocking work elsewhere.
+     */
+    public void addHeadListener(Consumer<BigInteger> listener) {
+        headListeners.add(listener);
+    }
+
+    /**
+     * The known head if there is one, otherwise a one-off lookup that also seeds the tracker.
+     */
+    public CompletableFuture<BigInteger> currentHead() {
+        BigInteger known = head.get();
+        if (known != null) {
+            return CompletableFuture.completedFuture(known);
+        }
+        return rpcBatcher.submit(web3j.ethBlockNumber()).thenApply(response -> {
+            BigInteger blockNumber = toBlockNumber(response);
+            advance(blockNumber);
+            return blockNumber;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${celo.head.poll-interval-ms:1000}")
+    public void pollHead() {
+        try {
+            advance(toBlockNumber(rpcBatcher.submit(web3j.ethBlockNumber()).join()));
+        } catch (Exception e) {
+            logger.warn("Chain head poll failed, keeping head at {}", head.get(), e);
+        }
+    }
+
+    private void advance(BigInteger blockNumber) {
+        BigInteger previous = head.getAndAccumulate(blockNumber,
+            (current, candidate) -> current == null || candidate.compareTo(current) > 0 ? candidate : current);
+        if (previous == null || blockNumber.compareTo(previous) > 0) {
+            logger.debug("Chain head advanced to {}", blockNumber);
+            for (Consumer<BigInteger> listener : headListeners) {
+                try {
+                    listener.accept(blockNumber);
+                } catch (Exception e) {
+                    logger.warn("Head listener failed for block {}", blockNumber, e);
+                }
+            }
+        }
+    }
+
+    private static BigInteger toBlockNumber(EthBlockNumber response) {
+        if (response.hasError()) {
+            throw new IllegalStateException("eth_blockNumber failed: " + response.getError().getMessage());
+        }
+        return response.getBlockNumber();
+    }
+}
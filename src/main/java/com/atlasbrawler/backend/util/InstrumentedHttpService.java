@@ -0,0 +1,81 @@
+package com.atlasbrawler.backend.util;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.OkHttpClient;
+import org.web3j.protocol.http.HttpService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link HttpService} that times every JSON-RPC round trip. All Web3j traffic,
+ * synchronous, async and batched, goes through {@link #performIO}, so this covers
+ * every call without touching the call sites. Single calls are tagged with their
+ * RPC method; batches are tagged {@code batch} and their size is recorded
+ * separately. The timing ends when the response headers arrive; the body is
+ * parsed by the caller.
+ */
+public class InstrumentedHttpService extends HttpService {
+
+    private static final String METHOD_FIELD = "\"method\":\"";
+    private static final String BATCH = "batch";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> errorTimers = new ConcurrentHashMap<>();
+    private final DistributionSummary batchSize;
+
+    public InstrumentedHttpService(String url, OkHttpClient httpClient, MeterRegistry meterRegistry) {
+        super(url, httpClient);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = DistributionSummary.builder("chain.rpc.batch.size")
+            .description("Calls per JSON-RPC batch request")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected InputStream performIO(String request) throws IOException {
+        String method = methodOf(request);
+        long start = System.nanoTime();
+        try {
+            InputStream response = super.performIO(request);
+            timer(successTimers, method, "success").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return response;
+        } catch (IOException | RuntimeException e) {
+            timer(errorTimers, method, "error").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer timer(Map<String, Timer> timers, String method, String outcome) {
+        return timers.computeIfAbsent(method, m -> Timer.builder("chain.rpc.request")
+            .description("JSON-RPC round trip to the Celo node")
+            .tag("method", m)
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry));
+    }
+
+    private String methodOf(String request) {
+        if (!request.isEmpty() && request.charAt(0) == '[') {
+            int calls = 0;
+            for (int i = request.indexOf(METHOD_FIELD); i >= 0; i = request.indexOf(METHOD_FIELD, i + 1)) {
+                calls++;
+            }
+            batchSize.record(calls);
+            return BATCH;
+        }
+        int start = request.indexOf(METHOD_FIELD);
+        if (start < 0) {
+            return "unknown";
+        }
+        start += METHOD_FIELD.length();
+        int end = request.indexOf('"', start);
+        return end > start ? request.substring(start, end) : "unknown";
+    }
+}
@@ -0,0 +1,179 @@
+package com.atlasbrawler.backend.util;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalesces JSON-RPC calls issued close together into a single batch request.
+ * A call waits at most {@code celo.rpc.batch.linger-ms} for companions, and a batch
+ * is flushed early as soon as {@code celo.rpc.batch.max-size} calls are queued.
+ */
+@Component
+public class JsonRpcBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(JsonRpcBatcher.class);
+
+    private final Web3j web3j;
+    private final ConcurrentLinkedQueue<PendingCall<?>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rpc-batcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${celo.rpc.batch.max-size:50}")
+    private int maxBatchSize;
+
+    @Value("${celo.rpc.batch.linger-ms:10}")
+    private long lingerMs;
+
+    public JsonRpcBatcher(Web3j web3j) {
+        this.web3j = web3j;
+    }
+
+    /**
+     * Queues a request for the next batch. The returned future completes with the
+     * raw response, so callers still inspect {@code hasError()} as with {@code send()}.
+     */
+    public <T extends Response<?>> CompletableFuture<T> submit(Request<?, T> request) {
+        if (maxBatchSize <= 1) {
+            return request.sendAsync();
+        }
+
+        PendingCall<T> call = new PendingCall<>(request);
+        queue.add(call);
+
+        if (queued.incrementAndGet() >= maxBatchSize) {
+            scheduler.execute(this::flush);
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, lingerMs, TimeUnit.MILLISECONDS);
+        }
+        return call.future;
+    }
+
+    /**
+     * Convenience for callers that need the whole group answered before moving on.
+     */
+    public <T extends Response<?>> List<CompletableFuture<T>> submitAll(List<? extends Request<?, T>> requests) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(requests.size());
+        for (Request<?, T> request : requests) {
+            futures.add(submit(request));
+        }
+        return futures;
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+
+        while (true) {
+            List<PendingCall<?>> calls = drain();
+            if (calls.isEmpty()) {
+                return;
+            }
+            dispatch(calls);
+            if (queued.get() < maxBatchSize) {
+                if (queued.get() > 0 && flushScheduled.compareAndSet(false, true)) {
+                    scheduler.schedule(this::flush, lingerMs, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+        }
+    }
+
+    private List<PendingCall<?>> drain() {
+        List<PendingCall<?>> calls = new ArrayList<>(Math.min(queued.get(), maxBatchSize));
+        PendingCall<?> call;
+        while (calls.size() < maxBatchSize && (call = queue.poll()) != null) {
+            queued.decrementAndGet();
+            calls.add(call);
+        }
+        return calls;
+    }
+
+    private void dispatch(List<PendingCall<?>> calls) {
+        if (calls.size() == 1) {
+            calls.get(0).sendAlone();
+            return;
+        }
+
+        BatchRequest batch = web3j.newBatch();
+        Map<Long, PendingCall<?>> byId = new HashMap<>(calls.size() * 2);
+        for (PendingCall<?> call : calls) {
+            batch.add(call.request);
+            byId.put(call.request.getId(), call);
+        }
+
+        logger.debug("Sending JSON-RPC batch of {} calls", calls.size());
+        batch.sendAsync().whenComplete((response, error) -> {
+            if (error != null) {
+                logger.warn("JSON-RPC batch of {} calls failed", calls.size(), error);
+                calls.forEach(call -> call.future.completeExceptionally(error));
+                return;
+            }
+            complete(byId, response);
+        });
+    }
+
+    private void complete(Map<Long, PendingCall<?>> byId, BatchResponse response) {
+        for (Response<?> item : response.getResponses()) {
+            PendingCall<?> call = byId.remove(item.getId());
+            if (call != null) {
+                call.completeWith(item);
+            }
+        }
+        byId.values().forEach(call -> call.future.completeExceptionally(
+            new IllegalStateException("No response in batch for " + call.request.getMethod())));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    private static final class PendingCall<T extends Response<?>> {
+
+        private final Request<?, T> request;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private PendingCall(Request<?, T> request) {
+            this.request = request;
+        }
+
+        private void sendAlone() {
+            request.sendAsync().whenComplete((response, error) -> {
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(response);
+                }
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private void completeWith(Response<?> response) {
+            future.complete((T) response);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.atlasbrawler.backend.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+
+import java.math.BigInteger;
+
+/**
+ * Hands out nonces for the payout account locally so several transfers can be
+ * signed and broadcast without waiting for each other. The counter is seeded
+ * from the pending transaction count. Re-seeding is only requested when a send
+ * fails and is applied by the payout run before it reserves anything, so it never
+ * lands between a reservation and its broadcast.
+ */
+@Component
+public class NonceManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(NonceManager.class);
+
+    private final Web3j web3j;
+    private final Credentials credentials;
+    private final JsonRpcBatcher rpcBatcher;
+
+    private BigInteger nextNonce;
+    private volatile boolean resyncRequested;
+
+    public NonceManager(Web3j web3j, Credentials credentials, JsonRpcBatcher rpcBatcher) {
+        this.web3j = web3j;
+        this.credentials = credentials;
+        this.rpcBatcher = rpcBatcher;
+    }
+
+    public synchronized BigInteger reserve() {
+        if (nextNonce == null) {
+            nextNonce = fetchPendingNonce();
+        }
+        BigInteger reserved = nextNonce;
+        nextNonce = nextNonce.add(BigInteger.ONE);
+        return reserved;
+    }
+
+    /**
+     * Marks the local counter as stale. Safe to call from any thread, including receipt
+     * callbacks; the counter is only dropped by {@link #resyncIfRequested()}.
+     */
+    public void requestResync() {
+        resyncRequested = true;
+    }
+
+    /**
+     * Drops the local counter if a resync was requested, so the next reservation
+     * re-reads the chain and hands out nonces left unused by failed sends again.
+     * Callers run this only while no reserved nonce is waiting to be broadcast; until
+     * then the node's pending count does not include those nonces.
+     */
+    public synchronized void resyncIfRequested() {
+        if (!resyncRequested) {
+            return;
+        }
+        resyncRequested = false;
+        logger.info("Resyncing payout nonce for {} (local counter was {})", credentials.getAddress(), nextNonce);
+        nextNonce = null;
+    }
+
+    private BigInteger fetchPendingNonce() {
+        EthGetTransactionCount count = rpcBatcher
+            .submit(web3j.ethGetTransactionCount(credentials.getAddress(), DefaultBlockParameterName.PENDING))
+            .join();
+        if (count.hasError()) {
+            throw new IllegalStateException("Failed to fetch nonce: " + count.getError().getMessage());
+        }
+        logger.debug("Seeded payout nonce for {} at {}", credentials.getAddress(), count.getTransactionCount());
+        return count.getTransactionCount();
+    }
+}
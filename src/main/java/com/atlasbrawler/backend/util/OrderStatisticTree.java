@@ -0,0 +1,186 @@
+package com.atlasbrawler.backend.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Randomised balanced search tree (treap) whose nodes carry subtree sizes, so
+ * insertion, removal, rank lookup and positional access are all O(log n).
+ * The comparator must be consistent with equals; elements are unique.
+ * Not thread-safe: callers guard it with their own lock.
+ */
+public class OrderStatisticTree<E> {
+
+    private final Comparator<? super E> comparator;
+    private Node<E> root;
+
+    public OrderStatisticTree(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public void clear() {
+        root = null;
+    }
+
+    public boolean add(E element) {
+        if (rank(element) >= 0) {
+            return false;
+        }
+        Node<E>[] parts = split(root, element);
+        root = merge(merge(parts[0], new Node<>(element)), parts[1]);
+        return true;
+    }
+
+    public boolean remove(E element) {
+        int before = size(root);
+        root = remove(root, element);
+        return size(root) < before;
+    }
+
+    /**
+     * Zero-based position of the element in comparator order, or -1 if absent.
+     */
+    public int rank(E element) {
+        int rank = 0;
+        Node<E> node = root;
+        while (node != null) {
+            int cmp = comparator.compare(element, node.value);
+            if (cmp < 0) {
+                node = node.left;
+            } else if (cmp > 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return rank + size(node.left);
+            }
+        }
+        return -1;
+    }
+
+    public E get(int index) {
+        if (index < 0 || index >= size(root)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size(root));
+        }
+        Node<E> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+    }
+
+    /**
+     * Elements at positions {@code [from, to)}, clamped to the tree bounds.
+     */
+    public List<E> range(int from, int to) {
+        int start = Math.max(0, from);
+        int end = Math.min(size(root), to);
+        List<E> out = new ArrayList<>(Math.max(0, end - start));
+        if (start < end) {
+            collect(root, start, end, 0, out);
+        }
+        return out;
+    }
+
+    private void collect(Node<E> node, int from, int to, int offset, List<E> out) {
+        if (node == null) {
+            return;
+        }
+        int position = offset + size(node.left);
+        if (from < position) {
+            collect(node.left, from, to, offset, out);
+        }
+        if (position >= from && position < to) {
+            out.add(node.value);
+        }
+        if (position + 1 < to) {
+            collect(node.right, from, to, position + 1, out);
+        }
+    }
+
+    private Node<E> remove(Node<E> node, E element) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = comparator.compare(element, node.value);
+        if (cmp < 0) {
+            node.left = remove(node.left, element);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, element);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Splits into elements strictly less than {@code key} and the rest.
+     */
+    @SuppressWarnings("unchecked")
+    private Node<E>[] split(Node<E> node, E key) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        if (comparator.compare(node.value, key) < 0) {
+            Node<E>[] parts = split(node.right, key);
+            node.right = parts[0];
+            node.update();
+            return new Node[] {node, parts[1]};
+        }
+        Node<E>[] parts = split(node.left, key);
+        node.left = parts[1];
+        node.update();
+        return new Node[] {parts[0], node};
+    }
+
+    private Node<E> merge(Node<E> left, Node<E> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<E> {
+
+        private final E value;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private int size = 1;
+        private Node<E> left;
+        private Node<E> right;
+
+        private Node(E value) {
+            this.value = value;
+        }
+
+        private void update() {
+            size = 1 + size(left) + size(right);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.atlasbrawler.backend.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route token buckets keyed by wallet or client IP. Each (route, key type)
+ * pair is configured with {@code rate-limit.<route>.<wallet|ip>.capacity} and
+ * {@code .refill-per-minute}. Buckets live in a {@link ConcurrentHashMap} and are
+ * taken from with a CAS, and buckets that have refilled completely are swept, so
+ * memory tracks the number of recently active clients.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    public enum Route {
+        // Sessions are unsigned, so a wallet key would let anyone exhaust another player's limit
+        GAME_SESSION("game-session", 0, 120),
+        GAME_SESSIONS_BULK("game-sessions-bulk", 0, 10),
+        REWARD_CLAIM("reward-claim", 10, 60);
+
+        private final String key;
+        private final int defaultWalletLimit;
+        private final int defaultIpLimit;
+
+        Route(String key, int defaultWalletLimit, int defaultIpLimit) {
+            this.key = key;
+            this.defaultWalletLimit = defaultWalletLimit;
+            this.defaultIpLimit = defaultIpLimit;
+        }
+    }
+
+    public enum KeyType {
+        WALLET, IP
+    }
+
+    private final boolean enabled;
+    private final Map<Route, Map<KeyType, Rule>> rules = new EnumMap<>(Route.class);
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RateLimiter(Environment environment, MeterRegistry meterRegistry) {
+        this.enabled = environment.getProperty("rate-limit.enabled", Boolean.class, true);
+        this.meterRegistry = meterRegistry;
+        for (Route route : Route.values()) {
+            Map<KeyType, Rule> routeRules = new EnumMap<>(KeyType.class);
+            routeRules.put(KeyType.WALLET, rule(environment, route, KeyType.WALLET, route.defaultWalletLimit));
+            routeRules.put(KeyType.IP, rule(environment, route, KeyType.IP, route.defaultIpLimit));
+            rules.put(route, routeRules);
+        }
+        meterRegistry.gaugeMapSize("ratelimit.buckets", Tags.empty(), buckets);
+    }
+
+    /**
+     * Takes one token from the key's bucket, or throws a 429 carrying the time
+     * until the next token. A capacity of 0 disables the limit.
+     */
+    public void acquire(Route route, KeyType keyType, String key) {
+        Rule rule = rules.get(route).get(keyType);
+        if (!enabled || rule == null || key == null) {
+            return;
+        }
+
+        String bucketKey = route.key + ':' + keyType + ':' + key.toLowerCase(Locale.ROOT);
+        TokenBucket bucket = buckets.computeIfAbsent(bucketKey, k -> new TokenBucket(rule.capacity(), rule.refillNanos()));
+        long waitNanos = bucket.tryAcquire(System.nanoTime());
+        if (waitNanos > 0) {
+            meterRegistry.counter("ratelimit.rejected", "route", route.key, "key", keyType.name().toLowerCase(Locale.ROOT))
+                .increment();
+            throw new RetryLaterException(HttpStatus.TOO_MANY_REQUESTS, "Rate limit exceeded",
+                TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        // A bucket refilled meanwhile by a racing caller only costs that caller one extra token
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        logger.debug("Swept {} idle rate-limit buckets", before - buckets.size());
+    }
+
+    private static Rule rule(Environment environment, Route route, KeyType keyType, int defaultLimit) {
+        String prefix = "rate-limit." + route.key + "." + keyType.name().toLowerCase(Locale.ROOT);
+        int capacity = environment.getProperty(prefix + ".capacity", Integer.class, defaultLimit);
+        int perMinute = environment.getProperty(prefix + ".refill-per-minute", Integer.class, defaultLimit);
+        if (capacity <= 0 || perMinute <= 0) {
+            return null;
+        }
+        return new Rule(capacity, TimeUnit.MINUTES.toNanos(1) / perMinute);
+    }
+
+    private record Rule(int capacity, long refillNanos) {
+    }
+}
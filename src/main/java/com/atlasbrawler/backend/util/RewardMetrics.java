@@ -0,0 +1,54 @@
+package com.atlasbrawler.backend.util;
+
+import com.atlasbrawler.backend.domain.enums.RewardStatus;
+import com.atlasbrawler.backend.domain.enums.RewardType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Meters for the reward lifecycle: {@code rewards.created} by type,
+ * {@code rewards.transitions} by from/to status, {@code rewards.claim.rejected} by
+ * reason, and transaction timers that stop when the surrounding transaction
+ * completes, so commit time is included.
+ */
+@Component
+public class RewardMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public RewardMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void created(RewardType type, int count) {
+        meterRegistry.counter("rewards.created", "type", type.name()).increment(count);
+    }
+
+    public void transition(RewardStatus from, RewardStatus to, int count) {
+        meterRegistry.counter("rewards.transitions", "from", from.name(), "to", to.name()).increment(count);
+    }
+
+    public void claimRejected(String reason) {
+        meterRegistry.counter("rewards.claim.rejected", "reason", reason).increment();
+    }
+
+    /**
+     * Starts a timer that is recorded when the current transaction commits or rolls
+     * back, tagged with the outcome. Call it first thing in a transactional method.
+     */
+    public void timeTransaction(String name) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                sample.stop(Timer.builder(name)
+                    .tag("outcome", status == STATUS_COMMITTED ? "committed" : "rolled_back")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            }
+        });
+    }
+}
@@ -1,93 +1,273 @@
 package com.atlasbrawler.backend.util;
 
+import com.atlasbrawler.backend.dto.BatchSignatureVerificationResponse;
+import com.atlasbrawler.backend.dto.SignatureVerificationItem;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.web3j.crypto.ECDSASignature;
 import org.web3j.crypto.Hash;
 import org.web3j.crypto.Keys;
 import org.web3j.crypto.Sign;
-import org.web3j.utils.Numeric;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 @Component
 public class SignatureUtil {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(SignatureUtil.class);
     private static final String PERSONAL_MESSAGE_PREFIX = "\u0019Ethereum Signed Message:\n";
-    
+    private static final int SIGNATURE_LENGTH = 65;
+    private static final int ADDRESS_LENGTH = 42;
+
+    /**
+     * Addresses already recovered, keyed by message hash followed by signature bytes.
+     * Client retries repeat the same pair, and a hit skips the secp256k1 recovery.
+     */
+    private final Cache<ByteBuffer, String> recoveredAddresses;
+
+    /**
+     * Dedicated pool for bulk verification so CPU-bound recovery never competes
+     * with the common pool used elsewhere in the JVM.
+     */
+    private final ForkJoinPool verificationPool;
+
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+    private final Timer recoverTimer;
+
+    public SignatureUtil(@Value("${signature.cache.max-size:10000}") long cacheMaxSize,
+                         @Value("${signature.batch.parallelism:0}") int parallelism,
+                         MeterRegistry meterRegistry) {
+        this.recoveredAddresses = Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .recordStats()
+            .build();
+        this.verificationPool = new ForkJoinPool(
+            parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.validTimer = verifyTimer("valid", meterRegistry);
+        this.invalidTimer = verifyTimer("invalid", meterRegistry);
+        this.recoverTimer = Timer.builder("signature.recover")
+            .description("secp256k1 public key recovery on a cache miss")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, recoveredAddresses, "signature.recovered");
+    }
+
     public boolean verifySignature(String message, String signature, String expectedAddress) {
+        return verify(message, signature, expectedAddress, true);
+    }
+
+    private boolean verify(String message, String signature, String expectedAddress, boolean cacheRecovered) {
+        long start = System.nanoTime();
+        boolean valid = false;
         try {
-            String messageHash = Numeric.toHexString(getEthereumMessageHash(message));
-            String recoveredAddress = recoverAddress(messageHash, signature);
-            
-            return recoveredAddress != null && 
-                   recoveredAddress.equalsIgnoreCase(expectedAddress);
+            byte[] signatureBytes = decodeHex(signature);
+            if (signatureBytes == null || signatureBytes.length != SIGNATURE_LENGTH) {
+                return false;
+            }
+
+            String recoveredAddress = recoverCached(getEthereumMessageHash(message), signatureBytes, cacheRecovered);
+
+            valid = recoveredAddress != null &&
+                    recoveredAddress.equalsIgnoreCase(expectedAddress);
+            return valid;
         } catch (Exception e) {
             logger.error("Error verifying signature", e);
             return false;
+        } finally {
+            (valid ? validTimer : invalidTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Verifies many (message, signature, address) tuples, spreading the recovery
+     * work across the verification pool. Results keep the order of the input.
+     * Batch items read the recovered-address cache but never fill it, so a bulk
+     * request cannot evict the entries that single verifications rely on.
+     */
+    public BatchSignatureVerificationResponse verifyBatch(List<SignatureVerificationItem> items) {
+        boolean[] valid = new boolean[items.size()];
+        long start = System.nanoTime();
+
+        try {
+            verificationPool.submit(() -> IntStream.range(0, items.size()).parallel().forEach(i -> {
+                SignatureVerificationItem item = items.get(i);
+                valid[i] = verify(item.getMessage(), item.getSignature(), item.getAddress(), false);
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch verification interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch verification failed", e.getCause());
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        List<Boolean> results = new ArrayList<>(valid.length);
+        int validCount = 0;
+        for (boolean result : valid) {
+            results.add(result);
+            if (result) {
+                validCount++;
+            }
         }
+
+        return BatchSignatureVerificationResponse.builder()
+            .results(results)
+            .total(items.size())
+            .validCount(validCount)
+            .parallelism(verificationPool.getParallelism())
+            .elapsedMillis(elapsedNanos / 1_000_000)
+            .verificationsPerSecond(elapsedNanos > 0 ? items.size() * 1e9 / elapsedNanos : 0.0)
+            .build();
+    }
+
+    private static Timer verifyTimer(String result, MeterRegistry meterRegistry) {
+        return Timer.builder("signature.verify")
+            .description("Personal-message signature verification, cache hits included")
+            .tag("result", result)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        verificationPool.shutdown();
     }
-    
+
     public String recoverAddress(String messageHash, String signature) {
+        byte[] hashBytes = decodeHex(messageHash);
+        byte[] signatureBytes = decodeHex(signature);
+        if (hashBytes == null || signatureBytes == null || signatureBytes.length != SIGNATURE_LENGTH) {
+            logger.error("Error recovering address from signature: malformed hex input");
+            return null;
+        }
+        return recoverCached(hashBytes, signatureBytes, true);
+    }
+
+    public byte[] getEthereumMessageHash(String message) {
+        String prefix = PERSONAL_MESSAGE_PREFIX + message.length();
+        String prefixedMessage = prefix + message;
+        return Hash.sha3(prefixedMessage.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isValidAddress(String address) {
+        if (address == null || address.length() != ADDRESS_LENGTH) {
+            return false;
+        }
+
+        if (address.charAt(0) != '0' || address.charAt(1) != 'x') {
+            return false;
+        }
+
+        for (int i = 2; i < ADDRESS_LENGTH; i++) {
+            if (hexValue(address.charAt(i)) < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private String recoverCached(byte[] messageHash, byte[] signatureBytes, boolean cacheRecovered) {
+        byte[] keyBytes = Arrays.copyOf(messageHash, messageHash.length + signatureBytes.length);
+        System.arraycopy(signatureBytes, 0, keyBytes, messageHash.length, signatureBytes.length);
+        ByteBuffer key = ByteBuffer.wrap(keyBytes);
+
+        String cached = recoveredAddresses.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long start = System.nanoTime();
+        String recovered = recover(messageHash, signatureBytes);
+        recoverTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (recovered != null && cacheRecovered) {
+            recoveredAddresses.put(key, recovered);
+        }
+        return recovered;
+    }
+
+    private String recover(byte[] messageHash, byte[] signatureBytes) {
         try {
-            byte[] signatureBytes = Numeric.hexStringToByteArray(signature);
             byte v = signatureBytes[64];
             if (v < 27) {
                 v += 27;
             }
-            
-            Sign.SignatureData signatureData = new Sign.SignatureData(
-                v,
-                Arrays.copyOfRange(signatureBytes, 0, 32),
-                Arrays.copyOfRange(signatureBytes, 32, 64)
-            );
-            
-            int header = 0;
-            for (byte b : signatureData.getR()) {
-                header = (header << 8) + (b & 0xFF);
-            }
-            
-            byte vByte = signatureData.getV()[0];
-            byte recId = (byte) (vByte - 27);
+
+            byte recId = (byte) (v - 27);
             BigInteger key = Sign.recoverFromSignature(
                 recId,
                 new ECDSASignature(
-                    new BigInteger(1, signatureData.getR()),
-                    new BigInteger(1, signatureData.getS())
+                    new BigInteger(1, Arrays.copyOfRange(signatureBytes, 0, 32)),
+                    new BigInteger(1, Arrays.copyOfRange(signatureBytes, 32, 64))
                 ),
-                Numeric.hexStringToByteArray(messageHash)
+                messageHash
             );
-            
+
             if (key == null) {
                 return null;
             }
-            
+
             return "0x" + Keys.getAddress(key);
         } catch (Exception e) {
             logger.error("Error recovering address from signature", e);
             return null;
         }
     }
-    
-    public byte[] getEthereumMessageHash(String message) {
-        String prefix = PERSONAL_MESSAGE_PREFIX + message.length();
-        String prefixedMessage = prefix + message;
-        return Hash.sha3(prefixedMessage.getBytes(StandardCharsets.UTF_8));
+
+    /**
+     * Decodes a hex string with an optional 0x prefix in a single pass.
+     * Returns null for odd-length or non-hex input instead of throwing.
+     */
+    static byte[] decodeHex(String hex) {
+        if (hex == null) {
+            return null;
+        }
+        int offset = hex.startsWith("0x") || hex.startsWith("0X") ? 2 : 0;
+        int length = hex.length() - offset;
+        if ((length & 1) != 0) {
+            return null;
+        }
+
+        byte[] out = new byte[length / 2];
+        for (int i = 0; i < out.length; i++) {
+            int high = hexValue(hex.charAt(offset + 2 * i));
+            int low = hexValue(hex.charAt(offset + 2 * i + 1));
+            if (high < 0 || low < 0) {
+                return null;
+            }
+            out[i] = (byte) ((high << 4) | low);
+        }
+        return out;
     }
-    
-    public boolean isValidAddress(String address) {
-        if (address == null || address.isEmpty()) {
-            return false;
+
+    private static int hexValue(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
         }
-        
-        if (!address.matches("^0x[0-9a-fA-F]{40}$")) {
-            return false;
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
         }
-        
-        return true;
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
     }
 }
@@ -0,0 +1,50 @@
+package com.atlasbrawler.backend.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket held as one timestamp, in the GCRA form: the instant at which the
+ * bucket would be full again. Taking a token moves that instant one refill
+ * interval forward with a compare-and-set, so callers never lock and the state is
+ * a single long.
+ */
+public final class TokenBucket {
+
+    private final long refillNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param capacity    tokens available in a burst
+     * @param refillNanos time to regain one token
+     */
+    public TokenBucket(int capacity, long refillNanos) {
+        this.refillNanos = refillNanos;
+        this.burstNanos = capacity * refillNanos;
+    }
+
+    /**
+     * Takes a token if one is available. Returns 0 on success, otherwise the nanos
+     * until the next token.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + refillNanos;
+            long wait = next - burstNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * True once the bucket has refilled completely, when dropping it loses nothing.
+     */
+    public boolean isFull(long nowNanos) {
+        return fullAt.get() <= nowNanos;
+    }
+}
@@ -0,0 +1,121 @@
+package com.atlasbrawler.backend.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.response.EthGetBalance;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Native balances read at the current chain head and cached per (address, block).
+ * Concurrent lookups for the same key share one in-flight {@code eth_getBalance},
+ * and the whole cache is dropped as soon as the head moves on.
+ */
+@Component
+public class WalletBalanceCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(WalletBalanceCache.class);
+
+    private final Web3j web3j;
+    private final JsonRpcBatcher rpcBatcher;
+    private final ChainHeadTracker headTracker;
+    private final BlockchainUtil blockchainUtil;
+    private final AsyncCache<BalanceKey, BigDecimal> balances;
+    private final AtomicReference<BigInteger> cachedHead = new AtomicReference<>();
+
+    public WalletBalanceCache(Web3j web3j, JsonRpcBatcher rpcBatcher, ChainHeadTracker headTracker,
+                              BlockchainUtil blockchainUtil,
+                              @Qualifier("chainIoExecutor") Executor chainIoExecutor,
+                              @Value("${celo.balance.cache.max-size:50000}") long maxSize) {
+        this.web3j = web3j;
+        this.rpcBatcher = rpcBatcher;
+        this.headTracker = headTracker;
+        this.blockchainUtil = blockchainUtil;
+        this.balances = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .executor(chainIoExecutor)
+            .buildAsync();
+    }
+
+    public CompletableFuture<BigDecimal> getBalance(String address) {
+        return headTracker.currentHead().thenCompose(head ->
+            balances.get(key(address, head), (key, executor) -> fetch(key)));
+    }
+
+    /**
+     * Balances for many addresses at one head. Misses go out together and end up
+     * in a single JSON-RPC batch; the result keeps the order of the input.
+     */
+    public CompletableFuture<Map<String, BigDecimal>> getBalances(List<String> addresses) {
+        return headTracker.currentHead().thenCompose(head -> {
+            Map<String, BalanceKey> keys = new LinkedHashMap<>();
+            for (String address : addresses) {
+                keys.put(address, key(address, head));
+            }
+            return balances.getAll(keys.values(), (missing, executor) -> fetchAll(missing))
+                .thenApply(found -> {
+                    Map<String, BigDecimal> result = new LinkedHashMap<>();
+                    keys.forEach((address, key) -> result.put(address, found.get(key)));
+                    return result;
+                });
+        });
+    }
+
+    private BalanceKey key(String address, BigInteger head) {
+        BigInteger previous = cachedHead.getAndUpdate(current ->
+            current == null || head.compareTo(current) > 0 ? head : current);
+        if (previous != null && head.compareTo(previous) > 0) {
+            balances.synchronous().invalidateAll();
+        }
+        return new BalanceKey(address.toLowerCase(), head);
+    }
+
+    private CompletableFuture<BigDecimal> fetch(BalanceKey key) {
+        return rpcBatcher.submit(web3j.ethGetBalance(key.address(), DefaultBlockParameter.valueOf(key.block())))
+            .thenApply(response -> toBalance(key, response));
+    }
+
+    private CompletableFuture<Map<BalanceKey, BigDecimal>> fetchAll(Set<? extends BalanceKey> keys) {
+        List<BalanceKey> ordered = new ArrayList<>(keys);
+        List<CompletableFuture<BigDecimal>> lookups = new ArrayList<>(ordered.size());
+        for (BalanceKey key : ordered) {
+            lookups.add(fetch(key));
+        }
+        return CompletableFuture.allOf(lookups.toArray(new CompletableFuture[0])).thenApply(done -> {
+            Map<BalanceKey, BigDecimal> fetched = new HashMap<>(ordered.size() * 2);
+            for (int i = 0; i < ordered.size(); i++) {
+                fetched.put(ordered.get(i), lookups.get(i).join());
+            }
+            logger.debug("Fetched {} balances at block {}", fetched.size(), ordered.get(0).block());
+            return fetched;
+        });
+    }
+
+    private BigDecimal toBalance(BalanceKey key, EthGetBalance response) {
+        if (response.hasError()) {
+            throw new IllegalStateException("eth_getBalance failed for " + key.address() + ": "
+                + response.getError().getMessage());
+        }
+        return blockchainUtil.weiToEther(response.getBalance());
+    }
+
+    private record BalanceKey(String address, BigInteger block) {
+    }
+}
@@ -0,0 +1,240 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.domain.Player;
+import com.atlasbrawler.backend.domain.Transaction;
+import com.atlasbrawler.backend.domain.enums.TransactionStatus;
+import com.atlasbrawler.backend.domain.enums.TransactionType;
+import com.atlasbrawler.backend.dto.SignedTransactionRequest;
+import com.atlasbrawler.backend.dto.TransactionResponse;
+import com.atlasbrawler.backend.repository.PlayerRepository;
+import com.atlasbrawler.backend.repository.TransactionRepository;
+import com.atlasbrawler.backend.util.BlockchainUtil;
+import com.atlasbrawler.backend.util.JsonRpcBatcher;
+import com.atlasbrawler.backend.util.NonceManager;
+import com.atlasbrawler.backend.util.WalletBalanceCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.web3j.crypto.Credentials;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.TransactionEncoder;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.utils.Convert;
+import org.web3j.utils.Numeric;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.notNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class BlockchainServiceDedupTest {
+
+    private static final Credentials HOT_WALLET =
+        Credentials.create("0x4c0883a69102937d6231471b5dbb6204fe5129617082792ae468d01a3f362318");
+    private static final Credentials PLAYER =
+        Credentials.create("0x8da4ef21b864d2cc526dbdb2a120bd2874c36c9d0a1fb7f8c63d7f7a8b41de8f");
+
+    private Web3j web3j;
+    private JsonRpcBatcher rpcBatcher;
+    private TransactionReceiptTracker receiptTracker;
+    private TransactionRepository transactionRepository;
+    private PlayerRepository playerRepository;
+    private BlockchainService blockchainService;
+
+    private final AtomicReference<TransactionReceiptTracker.TrackedTransaction> tracked = new AtomicReference<>();
+    private final CompletableFuture<EthSendTransaction> broadcastResult = new CompletableFuture<>();
+    private final CountDownLatch broadcasting = new CountDownLatch(1);
+
+    private SignedTransactionRequest request;
+    private String txHash;
+
+    @BeforeEach
+    void setUp() {
+        web3j = mock(Web3j.class);
+        rpcBatcher = mock(JsonRpcBatcher.class);
+        receiptTracker = mock(TransactionReceiptTracker.class);
+        transactionRepository = mock(TransactionRepository.class);
+        playerRepository = mock(PlayerRepository.class);
+        BlockchainUtil blockchainUtil = mock(BlockchainUtil.class);
+        TransactionLedgerService ledgerService = mock(TransactionLedgerService.class);
+
+        when(blockchainUtil.weiToEther(any()))
+            .thenAnswer(invocation -> Convert.fromWei(new BigDecimal((BigInteger) invocation.getArgument(0)), Convert.Unit.ETHER));
+        when(ledgerService.toResponse(any())).thenCallRealMethod();
+        when(transactionRepository.save(any())).then(returnsFirstArg());
+        when(transactionRepository.saveAndFlush(any())).then(returnsFirstArg());
+        when(receiptTracker.find(anyString())).thenAnswer(invocation -> Optional.ofNullable(tracked.get()));
+        when(receiptTracker.track(anyString(), anyString(), any(), any(), any())).thenAnswer(invocation -> {
+            tracked.compareAndSet(null, new TransactionReceiptTracker.TrackedTransaction(
+                invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2),
+                invocation.getArgument(3), invocation.getArgument(4)));
+            return tracked.get();
+        });
+        doAnswer(invocation -> {
+            broadcasting.countDown();
+            return broadcastResult;
+        }).when(rpcBatcher).submit(any());
+
+        blockchainService = new BlockchainService(web3j, HOT_WALLET, blockchainUtil, mock(DepositService.class),
+            receiptTracker, rpcBatcher, mock(NonceManager.class), mock(WalletBalanceCache.class),
+            transactionRepository, playerRepository, ledgerService);
+
+        RawTransaction deposit = RawTransaction.createEtherTransaction(BigInteger.valueOf(4), BigInteger.valueOf(5_000_000_000L),
+            BigInteger.valueOf(21_000), HOT_WALLET.getAddress(), Convert.toWei("1.5", Convert.Unit.ETHER).toBigInteger());
+        String signed = Numeric.toHexString(TransactionEncoder.signMessage(deposit, PLAYER));
+        txHash = Hash.sha3(signed).toLowerCase();
+
+        request = new SignedTransactionRequest();
+        request.setWalletAddress(PLAYER.getAddress());
+        request.setSignedTransaction(signed);
+    }
+
+    @Test
+    void concurrentDuplicateJoinsTheInFlightBroadcast() throws Exception {
+        CompletableFuture<TransactionResponse> first = CompletableFuture.supplyAsync(
+            () -> blockchainService.processSignedTransaction(request));
+        assertThat(broadcasting.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicReference<TransactionResponse> second = new AtomicReference<>();
+        Thread duplicate = new Thread(() -> second.set(blockchainService.processSignedTransaction(request)));
+        duplicate.start();
+        awaitParked(duplicate);
+
+        broadcastResult.complete(sent(txHash));
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getTransactionHash()).isEqualTo(txHash);
+        duplicate.join(5_000);
+        assertThat(second.get()).isEqualTo(first.get());
+        verify(web3j, times(1)).ethSendRawTransaction(request.getSignedTransaction());
+    }
+
+    @Test
+    void trackedHashIsAnsweredWithoutBroadcasting() {
+        broadcastResult.complete(sent(txHash));
+        TransactionResponse original = blockchainService.processSignedTransaction(request);
+
+        TransactionResponse retry = blockchainService.processSignedTransaction(request);
+
+        assertThat(retry).isEqualTo(original);
+        verify(rpcBatcher, times(1)).submit(any());
+    }
+
+    @Test
+    void storedRowIsAnsweredWithoutBroadcasting() {
+        Transaction stored = stored(TransactionStatus.CONFIRMED);
+        when(transactionRepository.findFirstByTransactionHashOrderByIdAsc(txHash)).thenReturn(Optional.of(stored));
+
+        TransactionResponse response = blockchainService.processSignedTransaction(request);
+
+        assertThat(response.getStatus()).isEqualTo("CONFIRMED");
+        assertThat(response.getTransactionHash()).isEqualTo(txHash);
+        verifyNoInteractions(rpcBatcher, web3j);
+    }
+
+    @Test
+    void failedBroadcastMarksTheRowFailedAndAllowsAResubmit() {
+        Player player = Player.builder().id(1L).walletAddress(PLAYER.getAddress()).build();
+        when(playerRepository.findByWalletAddressIgnoreCase(PLAYER.getAddress())).thenReturn(Optional.of(player));
+        AtomicReference<Transaction> row = new AtomicReference<>();
+        when(transactionRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            row.set(invocation.getArgument(0));
+            return row.get();
+        });
+        when(transactionRepository.findFirstByTransactionHashOrderByIdAsc(txHash))
+            .thenAnswer(invocation -> Optional.ofNullable(row.get()));
+
+        EthSendTransaction rejected = new EthSendTransaction();
+        rejected.setError(new Response.Error(-32000, "replacement transaction underpriced"));
+        broadcastResult.complete(rejected);
+
+        assertThatThrownBy(() -> blockchainService.processSignedTransaction(request))
+            .isInstanceOf(RuntimeException.class);
+        assertThat(row.get().getStatus()).isEqualTo(TransactionStatus.FAILED);
+        assertThat(row.get().getTransactionType()).isEqualTo(TransactionType.DEPOSIT);
+
+        doAnswer(invocation -> CompletableFuture.completedFuture(sent(txHash))).when(rpcBatcher).submit(any());
+
+        TransactionResponse retry = blockchainService.processSignedTransaction(request);
+
+        assertThat(retry.getStatus()).isEqualTo("PENDING");
+        assertThat(row.get().getStatus()).isEqualTo(TransactionStatus.PENDING);
+        verify(transactionRepository, times(1)).saveAndFlush(any());
+        verify(rpcBatcher, times(2)).submit(any());
+        verify(receiptTracker, times(1)).track(anyString(), anyString(), any(), any(), any());
+    }
+
+    @Test
+    void lostBroadcastReplyLeavesTheRowPendingAndTracksIt() {
+        Player player = Player.builder().id(1L).walletAddress(PLAYER.getAddress()).build();
+        when(playerRepository.findByWalletAddressIgnoreCase(PLAYER.getAddress())).thenReturn(Optional.of(player));
+        AtomicReference<Transaction> row = new AtomicReference<>();
+        when(transactionRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            row.set(invocation.getArgument(0));
+            return row.get();
+        });
+        broadcastResult.completeExceptionally(new IOException("Read timed out"));
+
+        TransactionResponse response = blockchainService.processSignedTransaction(request);
+
+        assertThat(response.getStatus()).isEqualTo("PENDING");
+        assertThat(response.getTransactionHash()).isEqualTo(txHash);
+        assertThat(row.get().getStatus()).isEqualTo(TransactionStatus.PENDING);
+        verify(transactionRepository, never()).save(any());
+        // Tracked with the deposit callback, so the deposit is still credited if the node accepted it
+        verify(receiptTracker).track(eq(txHash), anyString(), any(), any(), notNull());
+
+        TransactionResponse retry = blockchainService.processSignedTransaction(request);
+
+        assertThat(retry).isEqualTo(response);
+        verify(rpcBatcher, times(1)).submit(any());
+    }
+
+    private Transaction stored(TransactionStatus status) {
+        return Transaction.builder()
+            .id(7L)
+            .transactionType(TransactionType.DEPOSIT)
+            .amount(new BigDecimal("1.5"))
+            .status(status)
+            .transactionHash(txHash)
+            .fromAddress(PLAYER.getAddress())
+            .toAddress(HOT_WALLET.getAddress())
+            .createdAt(LocalDateTime.now())
+            .build();
+    }
+
+    private static EthSendTransaction sent(String hash) {
+        EthSendTransaction sent = new EthSendTransaction();
+        sent.setResult(hash);
+        return sent;
+    }
+
+    private static void awaitParked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(thread.getState()).isEqualTo(Thread.State.WAITING);
+    }
+}
@@ -0,0 +1,160 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.PostgresTestBase;
+import com.atlasbrawler.backend.domain.CashPool;
+import com.atlasbrawler.backend.domain.CashPoolContribution;
+import com.atlasbrawler.backend.domain.Player;
+import com.atlasbrawler.backend.domain.enums.RewardType;
+import com.atlasbrawler.backend.factory.RewardFactory;
+import com.atlasbrawler.backend.repository.CashPoolContributionRepository;
+import com.atlasbrawler.backend.repository.CashPoolRepository;
+import com.atlasbrawler.backend.repository.PlayerRepository;
+import com.atlasbrawler.backend.repository.SkaterCardRepository;
+import com.atlasbrawler.backend.util.RewardMetrics;
+import com.atlasbrawler.backend.util.SignatureUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+class CashPoolLifecycleProcessorTest extends PostgresTestBase {
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private SkaterCardRepository skaterCardRepository;
+
+    @Autowired
+    private CashPoolRepository cashPoolRepository;
+
+    @Autowired
+    private CashPoolContributionRepository contributionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private CashPoolLifecycleProcessor processor;
+    private Player creator;
+    private Player alice;
+    private Player bob;
+
+    @BeforeEach
+    void setUp() {
+        PlayerService playerService = new PlayerService(playerRepository, skaterCardRepository,
+            mock(SignatureUtil.class), mock(LeaderboardService.class), jdbcTemplate, mock(CacheManager.class));
+        processor = new CashPoolLifecycleProcessor(jdbcTemplate, new TransactionTemplate(transactionManager),
+            mock(CashPoolService.class), playerService, new RewardFactory(), mock(RewardMetrics.class));
+        ReflectionTestUtils.setField(processor, "chunkSize", 500);
+        ReflectionTestUtils.setField(processor, "fetchSize", 1000);
+        // Smaller than the number of shares, so the rewards go out in several batches
+        ReflectionTestUtils.setField(processor, "batchSize", 1);
+        processor.detectDatabase();
+
+        creator = player("0x1111111111111111111111111111111111111111", "creator");
+        alice = player("0x2222222222222222222222222222222222222222", "alice");
+        bob = player("0x3333333333333333333333333333333333333333", "bob");
+    }
+
+    @Test
+    void completedPoolPaysEachContributorTheirShareAsAReward() {
+        CashPool pool = pool("10.00", "11.00", LocalDateTime.now().plusDays(1));
+        contribute(pool, alice, "4.00");
+        contribute(pool, bob, "5.00");
+        contribute(pool, alice, "2.00");
+
+        processor.settleDuePools();
+
+        assertThat(poolRow(pool)).containsEntry("status", "COMPLETED");
+        assertThat((BigDecimal) poolRow(pool).get("total_amount")).isEqualByComparingTo("11.00");
+        List<Map<String, Object>> rewards = jdbcTemplate.queryForList(
+            "SELECT player_id, reward_type, amount, status FROM rewards ORDER BY player_id");
+        assertThat(rewards).hasSize(2);
+        assertThat(rewards).allSatisfy(reward -> {
+            assertThat(reward).containsEntry("reward_type", RewardType.CASH_POOL.name());
+            assertThat(reward).containsEntry("status", "PENDING");
+        });
+        assertThat(rewards.get(0)).containsEntry("player_id", alice.getId());
+        assertThat((BigDecimal) rewards.get(0).get("amount")).isEqualByComparingTo("6.00");
+        assertThat(rewards.get(1)).containsEntry("player_id", bob.getId());
+        assertThat((BigDecimal) rewards.get(1).get("amount")).isEqualByComparingTo("5.00");
+
+        // Nothing goes to the creator, and the contributions stay debited
+        assertThat(balance(creator)).isEqualByComparingTo("0");
+        assertThat(balance(alice)).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void expiredPoolRefundsContributionsToTheCUSDBalance() {
+        CashPool pool = pool("10.00", "3.00", LocalDateTime.now().minusMinutes(1));
+        contribute(pool, alice, "1.00");
+        contribute(pool, alice, "0.50");
+        contribute(pool, bob, "1.50");
+
+        processor.settleDuePools();
+
+        assertThat(poolRow(pool)).containsEntry("status", "EXPIRED");
+        assertThat(balance(alice)).isEqualByComparingTo("1.50");
+        assertThat(balance(bob)).isEqualByComparingTo("1.50");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rewards", Integer.class)).isZero();
+    }
+
+    @Test
+    void poolThatIsNeitherFullNorExpiredStaysActive() {
+        CashPool pool = pool("10.00", "2.00", LocalDateTime.now().plusDays(1));
+        contribute(pool, alice, "2.00");
+
+        processor.settleDuePools();
+
+        assertThat(poolRow(pool)).containsEntry("status", "ACTIVE");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rewards", Integer.class)).isZero();
+    }
+
+    private Player player(String wallet, String username) {
+        return playerRepository.saveAndFlush(Player.builder().walletAddress(wallet).username(username).build());
+    }
+
+    private CashPool pool(String target, String total, LocalDateTime expiresAt) {
+        return cashPoolRepository.saveAndFlush(CashPool.builder()
+            .poolName("Weekend pot")
+            .creator(creator)
+            .targetAmount(new BigDecimal(target))
+            .totalAmount(new BigDecimal(total))
+            .expiresAt(expiresAt)
+            .build());
+    }
+
+    private void contribute(CashPool pool, Player contributor, String amount) {
+        contributionRepository.saveAndFlush(CashPoolContribution.builder()
+            .cashPool(pool)
+            .contributor(contributor)
+            .amount(new BigDecimal(amount))
+            .build());
+    }
+
+    private Map<String, Object> poolRow(CashPool pool) {
+        return jdbcTemplate.queryForMap("SELECT status, total_amount FROM cash_pools WHERE id = ?", pool.getId());
+    }
+
+    private BigDecimal balance(Player player) {
+        return jdbcTemplate.queryForObject("SELECT cusdbalance FROM players WHERE id = ?", BigDecimal.class,
+            player.getId());
+    }
+}
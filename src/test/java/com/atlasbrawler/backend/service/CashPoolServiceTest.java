@@ -0,0 +1,208 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.domain.CashPool;
+import com.atlasbrawler.backend.domain.Player;
+import com.atlasbrawler.backend.domain.enums.CashPoolStatus;
+import com.atlasbrawler.backend.dto.CashPoolContributionRequest;
+import com.atlasbrawler.backend.dto.CashPoolContributionResponse;
+import com.atlasbrawler.backend.repository.CashPoolContributionRepository;
+import com.atlasbrawler.backend.repository.CashPoolRepository;
+import com.atlasbrawler.backend.repository.PlayerRepository;
+import com.atlasbrawler.backend.util.SignatureUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.as;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.InstanceOfAssertFactories.BIG_DECIMAL;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CashPoolServiceTest {
+
+    private static final String WALLET = "0x1111111111111111111111111111111111111111";
+
+    private final FakeTransactionManager transactionManager = new FakeTransactionManager();
+    private final List<List<BigDecimal>> flushes = new ArrayList<>();
+    private boolean failNextFlush;
+
+    private CashPool pool;
+    private CashPoolService cashPoolService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        pool = CashPool.builder()
+            .id(1L)
+            .poolName("weekly")
+            .totalAmount(new BigDecimal("10.0000"))
+            .targetAmount(new BigDecimal("100.0000"))
+            .build();
+
+        CashPoolRepository cashPoolRepository = mock(CashPoolRepository.class);
+        when(cashPoolRepository.findById(1L)).thenAnswer(invocation -> Optional.of(pool));
+        when(cashPoolRepository.getReferenceById(1L)).thenAnswer(invocation -> pool);
+        CashPoolContributionRepository contributionRepository = mock(CashPoolContributionRepository.class);
+        when(contributionRepository.save(any())).then(returnsFirstArg());
+        PlayerRepository playerRepository = mock(PlayerRepository.class);
+        when(playerRepository.findByWalletAddress(WALLET))
+            .thenReturn(Optional.of(Player.builder().id(7L).walletAddress(WALLET).build()));
+        SignatureUtil signatureUtil = mock(SignatureUtil.class);
+        when(signatureUtil.verifySignature(anyString(), anyString(), anyString())).thenReturn(true);
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            if (failNextFlush) {
+                failNextFlush = false;
+                throw new DataAccessResourceFailureException("connection lost");
+            }
+            List<BigDecimal> deltas = new ArrayList<>();
+            PreparedStatement ps = mock(PreparedStatement.class);
+            doAnswer(set -> deltas.add(set.getArgument(1))).when(ps).setBigDecimal(eq(1), any());
+            ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+            for (Object entry : (Collection<Object>) invocation.getArgument(1)) {
+                setter.setValues(ps, entry);
+            }
+            flushes.add(deltas);
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+
+        cashPoolService = new CashPoolService(cashPoolRepository, contributionRepository, playerRepository,
+            mock(PlayerService.class), signatureUtil, jdbcTemplate, new TransactionTemplate(transactionManager),
+            Runnable::run);
+    }
+
+    @Test
+    void runningTotalIncludesContributionsBeforeTheyAreFlushed() {
+        assertThat(contribute("2.5").getPoolTotal()).isEqualByComparingTo("12.5");
+        assertThat(contribute("2.5").getPoolTotal()).isEqualByComparingTo("15");
+
+        assertThat(cashPoolService.getPool(1L).getTotalAmount()).isEqualByComparingTo("15");
+        assertThat(flushes).isEmpty();
+    }
+
+    @Test
+    void flushWritesOnlyWhatArrivedSinceTheLastFlush() {
+        contribute("2.5");
+        contribute("2.5");
+
+        cashPoolService.flush();
+        cashPoolService.flush();
+        contribute("1");
+        cashPoolService.flush();
+
+        assertThat(flushes).hasSize(2);
+        assertThat(flushes.get(0)).singleElement(as(BIG_DECIMAL)).isEqualByComparingTo("5");
+        assertThat(flushes.get(1)).singleElement(as(BIG_DECIMAL)).isEqualByComparingTo("1");
+    }
+
+    @Test
+    void failedFlushKeepsTheDeltaForTheNextOne() {
+        contribute("3");
+        failNextFlush = true;
+
+        cashPoolService.flush();
+        contribute("4");
+        cashPoolService.flush();
+
+        assertThat(flushes).hasSize(1);
+        assertThat(flushes.get(0)).singleElement(as(BIG_DECIMAL)).isEqualByComparingTo("7");
+    }
+
+    @Test
+    void contributionThatDoesNotCommitIsTakenBackOut() {
+        contribute("5");
+        transactionManager.failNextCommit = true;
+
+        assertThatThrownBy(() -> contribute("20")).isInstanceOf(TransactionSystemException.class);
+
+        assertThat(cashPoolService.getPool(1L).getTotalAmount()).isEqualByComparingTo("15");
+        cashPoolService.flush();
+        assertThat(flushes).hasSize(1);
+        assertThat(flushes.get(0)).singleElement(as(BIG_DECIMAL)).isEqualByComparingTo("5");
+    }
+
+    @Test
+    void reachingTheTargetFlushesStraightAway() {
+        CashPoolContributionResponse below = contribute("50");
+        CashPoolContributionResponse reached = contribute("40");
+
+        assertThat(below.isTargetReached()).isFalse();
+        assertThat(reached.isTargetReached()).isTrue();
+        assertThat(cashPoolService.isTargetReached(1L)).isTrue();
+        assertThat(flushes).hasSize(1);
+        assertThat(flushes.get(0)).singleElement(as(BIG_DECIMAL)).isEqualByComparingTo("90");
+    }
+
+    @Test
+    void settledPoolReportsItsStoredTotal() {
+        contribute("5");
+        pool.setStatus(CashPoolStatus.COMPLETED);
+        pool.setTotalAmount(new BigDecimal("12.0000"));
+
+        assertThat(cashPoolService.getPool(1L).getTotalAmount()).isEqualByComparingTo("12");
+        assertThat(cashPoolService.isTargetReached(1L)).isFalse();
+    }
+
+    private CashPoolContributionResponse contribute(String amount) {
+        CashPoolContributionRequest request = new CashPoolContributionRequest();
+        request.setWalletAddress(WALLET);
+        request.setAmount(new BigDecimal(amount));
+        request.setNonce("nonce-" + amount);
+        request.setSignature("0xsig");
+        return cashPoolService.contribute(1L, request);
+    }
+
+    /**
+     * Runs callbacks with transaction synchronization active and commits or fails on
+     * request, so completion callbacks fire as they would against a database.
+     */
+    private static final class FakeTransactionManager extends AbstractPlatformTransactionManager {
+
+        private boolean failNextCommit;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            if (failNextCommit) {
+                failNextCommit = false;
+                throw new TransactionSystemException("commit failed");
+            }
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
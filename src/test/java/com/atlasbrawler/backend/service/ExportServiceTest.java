@@ -0,0 +1,112 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.PostgresTestBase;
+import com.atlasbrawler.backend.domain.Player;
+import com.atlasbrawler.backend.repository.PlayerRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class ExportServiceTest extends PostgresTestBase {
+
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ExportService(jdbcTemplate, transactionManager, objectMapper);
+        // Smaller than the table, so the cursor fetches more than once
+        ReflectionTestUtils.setField(exportService, "fetchSize", 2);
+
+        // Inserted out of order, so the export order has to come from updated_at
+        player("0x3333333333333333333333333333333333333333", "carol", NOW);
+        player("0x1111111111111111111111111111111111111111", "alice", NOW.minusHours(3));
+        player("0x2222222222222222222222222222222222222222", "bob", NOW.minusHours(1));
+    }
+
+    @Test
+    void exportWithoutSinceStreamsEveryRowByUpdatedAt() throws IOException {
+        assertThat(usernames(exportNdjson(null))).containsExactly("alice", "bob", "carol");
+    }
+
+    @Test
+    void sinceLimitsTheExportToRowsChangedAfterIt() throws IOException {
+        assertThat(usernames(exportNdjson(NOW.minusHours(2)))).containsExactly("bob", "carol");
+        // The bound is exclusive: a row changed exactly at since was in the previous export
+        assertThat(usernames(exportNdjson(NOW.minusHours(1)))).containsExactly("carol");
+        assertThat(exportNdjson(NOW)).isEmpty();
+    }
+
+    @Test
+    void csvExportAppliesSinceBelowTheHeader() throws IOException {
+        List<String> lines = export("players", ExportService.ExportFormat.CSV, NOW.minusHours(2)).lines().toList();
+
+        assertThat(lines.get(0)).startsWith("id,wallet_address,username,");
+        assertThat(lines).hasSize(3);
+        assertThat(lines.get(1)).contains(",bob,");
+        assertThat(lines.get(2)).contains(",carol,");
+    }
+
+    @Test
+    void unknownDatasetIsNotFound() {
+        assertThatThrownBy(() -> exportService.export("skater_cards", ExportService.ExportFormat.CSV, null))
+            .isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+    }
+
+    private void player(String wallet, String username, LocalDateTime updatedAt) {
+        Player player = playerRepository.saveAndFlush(Player.builder().walletAddress(wallet).username(username).build());
+        jdbcTemplate.update("UPDATE players SET updated_at = ? WHERE id = ?", Timestamp.valueOf(updatedAt),
+            player.getId());
+    }
+
+    private List<JsonNode> exportNdjson(LocalDateTime since) throws IOException {
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : export("players", ExportService.ExportFormat.NDJSON, since).lines().toList()) {
+            rows.add(objectMapper.readTree(line));
+        }
+        return rows;
+    }
+
+    private String export(String dataset, ExportService.ExportFormat format, LocalDateTime since) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(dataset, format, since).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> usernames(List<JsonNode> rows) {
+        return rows.stream().map(row -> row.get("username").asText()).toList();
+    }
+}
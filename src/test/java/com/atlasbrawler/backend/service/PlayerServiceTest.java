@@ -0,0 +1,80 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.PostgresTestBase;
+import com.atlasbrawler.backend.domain.Player;
+import com.atlasbrawler.backend.repository.PlayerRepository;
+import com.atlasbrawler.backend.repository.SkaterCardRepository;
+import com.atlasbrawler.backend.util.SignatureUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+class PlayerServiceTest extends PostgresTestBase {
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private SkaterCardRepository skaterCardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private PlayerService playerService;
+    private Player alice;
+
+    @BeforeEach
+    void setUp() {
+        playerService = new PlayerService(playerRepository, skaterCardRepository, mock(SignatureUtil.class),
+            mock(LeaderboardService.class), jdbcTemplate, mock(CacheManager.class));
+        alice = playerRepository.saveAndFlush(Player.builder()
+            .walletAddress("0x1111111111111111111111111111111111111111").username("alice")
+            .cUSDBalance(new BigDecimal("5.00")).build());
+    }
+
+    @Test
+    void debitCoveredByTheBalanceIsApplied() {
+        playerService.debitCUSDBalance(alice.getWalletAddress(), new BigDecimal("2.00"));
+        assertThat(balance()).isEqualByComparingTo("3.00");
+
+        playerService.debitCUSDBalance(alice.getWalletAddress(), new BigDecimal("3.00"));
+        assertThat(balance()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void debitBeyondTheBalanceUpdatesNothing() {
+        assertThat(playerRepository.debitCUSDBalance(alice.getWalletAddress(), new BigDecimal("5.01"),
+            LocalDateTime.now())).isZero();
+        assertThatThrownBy(() -> playerService.debitCUSDBalance(alice.getWalletAddress(), new BigDecimal("6.00")))
+            .isInstanceOfSatisfying(ResponseStatusException.class,
+                e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+
+        assertThat(balance()).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    void debitFromAnUnknownWalletIsNotFound() {
+        assertThatThrownBy(() -> playerService.debitCUSDBalance(
+            "0x9999999999999999999999999999999999999999", BigDecimal.ONE))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Player not found");
+    }
+
+    private BigDecimal balance() {
+        return jdbcTemplate.queryForObject("SELECT cusdbalance FROM players WHERE id = ?", BigDecimal.class,
+            alice.getId());
+    }
+}
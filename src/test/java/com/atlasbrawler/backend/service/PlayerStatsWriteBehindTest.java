@@ -0,0 +1,184 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.PostgresTestBase;
+import com.atlasbrawler.backend.domain.JournalCheckpoint;
+import com.atlasbrawler.backend.domain.Player;
+import com.atlasbrawler.backend.domain.Reward;
+import com.atlasbrawler.backend.domain.enums.RewardStatus;
+import com.atlasbrawler.backend.domain.enums.RewardType;
+import com.atlasbrawler.backend.repository.JournalCheckpointRepository;
+import com.atlasbrawler.backend.repository.PlayerRepository;
+import com.atlasbrawler.backend.repository.RewardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+class PlayerStatsWriteBehindTest extends PostgresTestBase {
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private RewardRepository rewardRepository;
+
+    @Autowired
+    private JournalCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path journalDir;
+
+    private Player alice;
+    private Reward reward;
+
+    @BeforeEach
+    void setUp() {
+        alice = playerRepository.saveAndFlush(Player.builder()
+            .walletAddress("0x1111111111111111111111111111111111111111").username("alice").build());
+        reward = rewardRepository.saveAndFlush(Reward.builder()
+            .player(alice)
+            .rewardType(RewardType.WAVE_SURVIVAL)
+            .amount(new BigDecimal("0.01"))
+            .status(RewardStatus.PENDING)
+            .wavesSurvived(3)
+            .score(300)
+            .reason("Wave survival reward")
+            .build());
+    }
+
+    @Test
+    void segmentLeftBehindByACrashAfterTheFlushIsNotAppliedAgain() throws IOException {
+        PlayerStatsWriteBehind writeBehind = start();
+        TransactionSynchronization commit = recordInTransaction(writeBehind, true, 300, new BigDecimal("2.5"));
+
+        commit.beforeCommit(false);
+        Path segment = journalDir.resolve("player-stats-1.journal");
+        List<String> journaled = Files.readAllLines(segment);
+        assertThat(journaled).singleElement().asString().startsWith(reward.getId() + "," + alice.getId() + ",");
+        commit.afterCommit();
+        commit.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        writeBehind.flush();
+
+        assertThat(stats()).containsEntry("total_games_played", 1).containsEntry("total_wins", 1)
+            .containsEntry("high_score", 300);
+        assertThat((BigDecimal) stats().get("soft_token_balance")).isEqualByComparingTo("2.5");
+        assertThat(segment).doesNotExist();
+        assertThat(checkpointRepository.findById("player-stats")).get()
+            .extracting(JournalCheckpoint::getSegment).isEqualTo(1L);
+
+        // As if the process died between the flush commit and deleting the segment
+        Files.write(segment, journaled);
+        PlayerStatsWriteBehind restarted = start();
+        restarted.flush();
+
+        assertThat(stats()).containsEntry("total_games_played", 1).containsEntry("total_wins", 1);
+        assertThat((BigDecimal) stats().get("soft_token_balance")).isEqualByComparingTo("2.5");
+        assertThat(segment).doesNotExist();
+    }
+
+    @Test
+    void replayAppliesOnlySessionsWhoseRewardCommitted() throws IOException {
+        checkpointRepository.saveAndFlush(JournalCheckpoint.builder().id("player-stats").segment(2L).build());
+        Path flushed = journalDir.resolve("player-stats-2.journal");
+        Files.write(flushed, List.of(entry(reward.getId(), 1, 900, "7")));
+        Path unflushed = journalDir.resolve("player-stats-3.journal");
+        Files.write(unflushed, List.of(
+            entry(reward.getId(), 0, 120, "1.5"),
+            // Journaled before a commit that never happened
+            entry(999_999_999L, 1, 500, "9"),
+            reward.getId() + "," + alice.getId() + ",0x11"));
+
+        PlayerStatsWriteBehind writeBehind = start();
+        assertThat(flushed).doesNotExist();
+        writeBehind.flush();
+
+        assertThat(stats()).containsEntry("total_games_played", 1).containsEntry("total_wins", 0)
+            .containsEntry("high_score", 120);
+        assertThat((BigDecimal) stats().get("soft_token_balance")).isEqualByComparingTo("1.5");
+        assertThat(unflushed).doesNotExist();
+        assertThat(checkpointRepository.findById("player-stats")).get()
+            .extracting(JournalCheckpoint::getSegment).isEqualTo(4L);
+    }
+
+    @Test
+    void failedJournalWriteFailsTheCommit() throws IOException {
+        PlayerStatsWriteBehind writeBehind = start();
+        TransactionSynchronization commit = recordInTransaction(writeBehind, true, 300, BigDecimal.ONE);
+        ((FileChannel) ReflectionTestUtils.getField(writeBehind, "journal")).close();
+
+        assertThatThrownBy(() -> commit.beforeCommit(false))
+            .isInstanceOf(IllegalStateException.class)
+            .hasCauseInstanceOf(ClosedChannelException.class);
+        commit.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        writeBehind.flush();
+
+        assertThat(stats()).containsEntry("total_games_played", 0);
+    }
+
+    private PlayerStatsWriteBehind start() throws IOException {
+        PlayerStatsWriteBehind writeBehind = new PlayerStatsWriteBehind(jdbcTemplate,
+            new TransactionTemplate(transactionManager), checkpointRepository, mock(CacheManager.class), Runnable::run);
+        ReflectionTestUtils.setField(writeBehind, "enabled", true);
+        ReflectionTestUtils.setField(writeBehind, "stripeCount", 4);
+        ReflectionTestUtils.setField(writeBehind, "flushThreshold", 1000);
+        ReflectionTestUtils.setField(writeBehind, "journalDir", journalDir.toString());
+        ReflectionTestUtils.setField(writeBehind, "journalFsync", false);
+        writeBehind.init();
+        return writeBehind;
+    }
+
+    /**
+     * Records one session in the test transaction and returns the hook it registered,
+     * so the test can play the commit through by hand.
+     */
+    private TransactionSynchronization recordInTransaction(PlayerStatsWriteBehind writeBehind, boolean win,
+                                                           int score, BigDecimal softTokens) {
+        List<TransactionSynchronization> before = TransactionSynchronizationManager.getSynchronizations();
+        writeBehind.record(reward, win, score, softTokens);
+        List<TransactionSynchronization> registered = new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        registered.removeAll(before);
+        assertThat(registered).hasSize(1);
+        return registered.get(0);
+    }
+
+    private String entry(Long rewardId, int wins, int score, String softTokens) {
+        return rewardId + "," + alice.getId() + "," + alice.getWalletAddress() + ",1," + wins + "," + score + ","
+            + softTokens;
+    }
+
+    private Map<String, Object> stats() {
+        return jdbcTemplate.queryForMap(
+            "SELECT total_games_played, total_wins, high_score, soft_token_balance FROM players WHERE id = ?",
+            alice.getId());
+    }
+}
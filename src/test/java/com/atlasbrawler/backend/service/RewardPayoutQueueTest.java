@@ -0,0 +1,222 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.PostgresTestBase;
+import com.atlasbrawler.backend.domain.PayoutAttempt;
+import com.atlasbrawler.backend.domain.Player;
+import com.atlasbrawler.backend.domain.Reward;
+import com.atlasbrawler.backend.domain.enums.PayoutStatus;
+import com.atlasbrawler.backend.domain.enums.RewardStatus;
+import com.atlasbrawler.backend.domain.enums.RewardType;
+import com.atlasbrawler.backend.repository.PayoutAttemptRepository;
+import com.atlasbrawler.backend.repository.PlayerRepository;
+import com.atlasbrawler.backend.repository.RewardRepository;
+import com.atlasbrawler.backend.repository.TransactionRepository;
+import com.atlasbrawler.backend.util.JsonRpcBatcher;
+import com.atlasbrawler.backend.util.RewardMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.web3j.protocol.Web3j;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+class RewardPayoutQueueTest extends PostgresTestBase {
+
+    private static final String HOT_WALLET = "0x9999999999999999999999999999999999999999";
+
+    @Autowired
+    private RewardRepository rewardRepository;
+
+    @Autowired
+    private PayoutAttemptRepository payoutAttemptRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private RewardPayoutQueue queue;
+    private RewardMetrics rewardMetrics;
+    private Player alice;
+    private final AtomicLong nonces = new AtomicLong(7);
+    private final Map<String, Consumer<PayoutStatus>> broadcasts = new LinkedHashMap<>();
+    private final Set<TransactionSynchronization> committed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    @BeforeEach
+    void setUp() {
+        BlockchainService blockchainService = mock(BlockchainService.class);
+        when(blockchainService.getHotWalletAddress()).thenReturn(HOT_WALLET);
+        when(blockchainService.prepareTransfer(anyString(), any())).thenAnswer(invocation -> {
+            long nonce = nonces.getAndIncrement();
+            return new BlockchainService.PreparedPayout(String.format("0x%064x", nonce), BigInteger.valueOf(nonce),
+                invocation.getArgument(0), invocation.getArgument(1), "0xsigned");
+        });
+        when(blockchainService.broadcastPayout(any(), any())).thenAnswer(invocation -> {
+            BlockchainService.PreparedPayout payout = invocation.getArgument(0);
+            broadcasts.put(payout.transactionHash(), invocation.getArgument(1));
+            return true;
+        });
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        TransactionLedgerService ledgerService = new TransactionLedgerService(transactionRepository, playerRepository,
+            mock(TransactionReceiptTracker.class), jdbcTemplate, mock(Web3j.class), mock(JsonRpcBatcher.class),
+            transactionTemplate);
+        rewardMetrics = mock(RewardMetrics.class);
+        queue = new RewardPayoutQueue(rewardRepository, payoutAttemptRepository, blockchainService, ledgerService,
+            transactionTemplate, rewardMetrics);
+        ReflectionTestUtils.setField(queue, "maxBatchSize", 200);
+        ReflectionTestUtils.setField(queue, "maxAttempts", 2);
+
+        alice = playerRepository.saveAndFlush(Player.builder()
+            .walletAddress("0x1111111111111111111111111111111111111111").username("alice").build());
+    }
+
+    @Test
+    void confirmedPayoutClaimsItsRewards() {
+        List<Reward> rewards = rewardRepository.saveAllAndFlush(List.of(queued(alice), queued(alice)));
+
+        queue.settleQueuedRewards();
+
+        assertThat(broadcasts).hasSize(1);
+        String txHash = broadcasts.keySet().iterator().next();
+        assertThat(rewards).allSatisfy(reward -> {
+            assertThat(reward.getStatus()).isEqualTo(RewardStatus.SUBMITTING);
+            assertThat(reward.getTransactionHash()).isEqualTo(txHash);
+        });
+        PayoutAttempt attempt = payoutAttemptRepository.findForUpdateByTransactionHash(txHash).orElseThrow();
+        assertThat(attempt.getStatus()).isEqualTo(PayoutStatus.SUBMITTING);
+        assertThat(attempt.getRewardCount()).isEqualTo(2);
+        assertThat(attempt.getAmount()).isEqualByComparingTo("0.02");
+        assertThat(ledgerStatuses(txHash)).containsExactly("PENDING");
+
+        broadcasts.get(txHash).accept(PayoutStatus.CONFIRMED);
+
+        assertThat(rewards).allSatisfy(reward -> {
+            assertThat(reward.getStatus()).isEqualTo(RewardStatus.CLAIMED);
+            assertThat(reward.getTransactionHash()).isEqualTo(txHash);
+        });
+        assertThat(attempt.getStatus()).isEqualTo(PayoutStatus.CONFIRMED);
+        assertThat(attempt.getResolvedAt()).isNotNull();
+
+        // A late report for an attempt that is already resolved changes nothing
+        broadcasts.get(txHash).accept(PayoutStatus.DROPPED);
+        assertThat(rewards).allSatisfy(reward -> assertThat(reward.getStatus()).isEqualTo(RewardStatus.CLAIMED));
+        assertThat(attempt.getStatus()).isEqualTo(PayoutStatus.CONFIRMED);
+    }
+
+    @Test
+    void droppedPayoutRequeuesItsRewardsUntilAttemptsRunOut() {
+        Reward reward = rewardRepository.saveAndFlush(queued(alice));
+
+        queue.settleQueuedRewards();
+        String firstHash = broadcasts.keySet().iterator().next();
+        broadcasts.get(firstHash).accept(PayoutStatus.DROPPED);
+
+        assertThat(reward.getStatus()).isEqualTo(RewardStatus.QUEUED);
+        assertThat(reward.getTransactionHash()).isNull();
+        assertThat(reward.getPayoutAttemptCount()).isEqualTo(1);
+        assertThat(payoutAttemptRepository.findForUpdateByTransactionHash(firstHash).orElseThrow().getStatus())
+            .isEqualTo(PayoutStatus.DROPPED);
+        assertThat(ledgerStatuses(firstHash)).containsExactly("FAILED");
+
+        // The requeued reward goes out again under a fresh hash, and the second drop uses up its attempts
+        queue.settleQueuedRewards();
+        assertThat(broadcasts).hasSize(2);
+        String secondHash = List.copyOf(broadcasts.keySet()).get(1);
+        assertThat(secondHash).isNotEqualTo(firstHash);
+        assertThat(reward.getStatus()).isEqualTo(RewardStatus.SUBMITTING);
+        broadcasts.get(secondHash).accept(PayoutStatus.DROPPED);
+
+        assertThat(reward.getStatus()).isEqualTo(RewardStatus.FAILED);
+        assertThat(reward.getPayoutAttemptCount()).isEqualTo(2);
+        assertThat(ledgerStatuses(secondHash)).containsExactly("FAILED");
+
+        queue.settleQueuedRewards();
+        assertThat(broadcasts).hasSize(2);
+    }
+
+    @Test
+    void metricsCountTheStatusEachRewardActuallyLeft() {
+        rewardRepository.saveAllAndFlush(List.of(queued(alice), queued(alice)));
+
+        queue.settleQueuedRewards();
+        commitQueueHooks();
+        verify(rewardMetrics).transition(RewardStatus.QUEUED, RewardStatus.SUBMITTING, 2);
+
+        broadcasts.values().iterator().next().accept(PayoutStatus.DROPPED);
+        commitQueueHooks();
+        verify(rewardMetrics).transition(RewardStatus.SUBMITTING, RewardStatus.QUEUED, 2);
+
+        queue.settleQueuedRewards();
+        commitQueueHooks();
+        List.copyOf(broadcasts.values()).get(1).accept(PayoutStatus.CONFIRMED);
+        commitQueueHooks();
+        verify(rewardMetrics).transition(RewardStatus.SUBMITTING, RewardStatus.CLAIMED, 2);
+        verify(rewardMetrics, never()).transition(eq(RewardStatus.QUEUED), eq(RewardStatus.CLAIMED), anyInt());
+    }
+
+    /**
+     * The test transaction never commits, so the queue's after-commit hooks are played
+     * by hand, each one once.
+     */
+    private void commitQueueHooks() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization.getClass().getEnclosingClass() == RewardPayoutQueue.class
+                    && committed.add(synchronization)) {
+                synchronization.afterCommit();
+            }
+        }
+    }
+
+    private List<String> ledgerStatuses(String txHash) {
+        rewardRepository.flush();
+        return jdbcTemplate.queryForList(
+            "SELECT status FROM transactions WHERE transaction_hash = ?", String.class, txHash);
+    }
+
+    private static Reward queued(Player player) {
+        return Reward.builder()
+            .player(player)
+            .rewardType(RewardType.WAVE_SURVIVAL)
+            .amount(new BigDecimal("0.01"))
+            .status(RewardStatus.QUEUED)
+            .wavesSurvived(3)
+            .score(300)
+            .reason("Wave survival reward")
+            .build();
+    }
+}
@@ -0,0 +1,171 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.PostgresTestBase;
+import com.atlasbrawler.backend.domain.IdSequences;
+import com.atlasbrawler.backend.domain.Player;
+import com.atlasbrawler.backend.domain.Reward;
+import com.atlasbrawler.backend.domain.enums.RewardStatus;
+import com.atlasbrawler.backend.domain.enums.RewardType;
+import com.atlasbrawler.backend.dto.BulkGameSessionResponse;
+import com.atlasbrawler.backend.dto.GameSessionRequest;
+import com.atlasbrawler.backend.dto.KeysetPage;
+import com.atlasbrawler.backend.dto.RewardSummary;
+import com.atlasbrawler.backend.repository.PlayerRepository;
+import com.atlasbrawler.backend.repository.RewardRepository;
+import com.atlasbrawler.backend.util.RateLimiter;
+import com.atlasbrawler.backend.util.RewardMetrics;
+import com.atlasbrawler.backend.util.SignatureUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+class RewardServiceTest extends PostgresTestBase {
+
+    @Autowired
+    private RewardRepository rewardRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private RewardService rewardService;
+    private Player alice;
+    private Player bob;
+
+    @BeforeEach
+    void setUp() {
+        rewardService = new RewardService(rewardRepository, playerRepository, mock(SignatureUtil.class),
+            mock(PlayerStatsWriteBehind.class), mock(LeaderboardService.class), mock(CacheManager.class),
+            mock(RewardMetrics.class), mock(RateLimiter.class));
+        alice = playerRepository.saveAndFlush(Player.builder()
+            .walletAddress("0x1111111111111111111111111111111111111111").username("alice").build());
+        bob = playerRepository.saveAndFlush(Player.builder()
+            .walletAddress("0x2222222222222222222222222222222222222222").username("bob").build());
+    }
+
+    @Test
+    void pendingRewardPagesCoverRowsSharingATimestampOnce() {
+        List<Reward> rewards = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rewards.add(reward(alice, RewardStatus.PENDING));
+        }
+        rewards.add(reward(alice, RewardStatus.CLAIMED));
+        rewards.add(reward(bob, RewardStatus.PENDING));
+        rewardRepository.saveAllAndFlush(rewards);
+
+        // Four rows tie on created_at, so only the id tiebreak keeps pages apart
+        LocalDateTime tied = LocalDateTime.of(2026, 1, 15, 12, 0);
+        jdbcTemplate.update("UPDATE rewards SET created_at = ?", Timestamp.valueOf(tied));
+        jdbcTemplate.update("UPDATE rewards SET created_at = ? WHERE id = ?",
+            Timestamp.valueOf(tied.minusMinutes(1)), rewards.get(2).getId());
+        List<Long> expected = jdbcTemplate.queryForList(
+            "SELECT id FROM rewards WHERE player_id = ? AND status = 'PENDING' ORDER BY created_at DESC, id DESC",
+            Long.class, alice.getId());
+
+        List<Long> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        KeysetPage<RewardSummary> page;
+        do {
+            page = rewardService.getPendingRewards(alice.getWalletAddress(), cursor, 2);
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            pageSizes.add(page.getItems().size());
+            cursor = page.getNextCursor();
+        } while (page.isHasMore());
+
+        assertThat(seen).containsExactlyElementsOf(expected).hasSize(5);
+        assertThat(seen.get(4)).isEqualTo(rewards.get(2).getId());
+        assertThat(pageSizes).containsExactly(2, 2, 1);
+        assertThat(cursor).isNull();
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() {
+        String wallet = alice.getWalletAddress();
+        String notACursor = Base64.getUrlEncoder().encodeToString("not-a-cursor".getBytes(StandardCharsets.UTF_8));
+        String badTimestamp = Base64.getUrlEncoder().encodeToString("yesterday|12".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of("%%%", notACursor, badTimestamp)) {
+            assertThatThrownBy(() -> rewardService.getPendingRewards(wallet, cursor, 10))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                    e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        }
+    }
+
+    @Test
+    void bulkSessionsInsertRewardsWithPooledIdsAndMatchWalletsIgnoringCase() {
+        Player carol = playerRepository.saveAndFlush(Player.builder()
+            .walletAddress("0xAbCdEf0123456789aBcDeF0123456789AbCdEf01").username("carol").build());
+        List<GameSessionRequest> sessions = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            String wallet = i % 2 == 0 ? alice.getWalletAddress() : carol.getWalletAddress();
+            sessions.add(session(i % 4 == 1 ? wallet.toUpperCase().replace("0X", "0x") : wallet, 100 + i, i % 3 == 0));
+        }
+        sessions.add(session("0x9999999999999999999999999999999999999999", 50, true));
+
+        BulkGameSessionResponse response = rewardService.processGameSessions(sessions);
+        rewardRepository.flush();
+
+        assertThat(response.getProcessed()).isEqualTo(120);
+        assertThat(response.getUnknownWallets()).containsExactly("0x9999999999999999999999999999999999999999");
+        assertThat(response.getRewardIds()).hasSize(120).doesNotContainNull().doesNotHaveDuplicates();
+        List<Long> stored = jdbcTemplate.queryForList("SELECT id FROM rewards", Long.class);
+        assertThat(stored).containsExactlyInAnyOrderElementsOf(response.getRewardIds());
+        // Ids come from blocks reserved on rewards_seq, so none lies past the sequence's last value
+        Long lastReserved = jdbcTemplate.queryForObject("SELECT last_value FROM " + IdSequences.REWARDS, Long.class);
+        assertThat(stored).allSatisfy(id -> assertThat(id).isLessThanOrEqualTo(lastReserved));
+
+        Map<String, Object> carolStats = jdbcTemplate.queryForMap(
+            "SELECT total_games_played, total_wins, high_score FROM players WHERE id = ?", carol.getId());
+        assertThat(carolStats.get("total_games_played")).isEqualTo(60);
+        assertThat(carolStats.get("total_wins")).isEqualTo(20);
+        assertThat(carolStats.get("high_score")).isEqualTo(219);
+        Map<String, Object> aliceStats = jdbcTemplate.queryForMap(
+            "SELECT total_games_played, total_wins, high_score FROM players WHERE id = ?", alice.getId());
+        assertThat(aliceStats.get("total_games_played")).isEqualTo(60);
+        assertThat(aliceStats.get("total_wins")).isEqualTo(20);
+        assertThat(aliceStats.get("high_score")).isEqualTo(218);
+    }
+
+    private static GameSessionRequest session(String wallet, int score, boolean win) {
+        GameSessionRequest session = new GameSessionRequest();
+        session.setWalletAddress(wallet);
+        session.setScore(score);
+        session.setWavesSurvived(3);
+        session.setIsWin(win);
+        return session;
+    }
+
+    private static Reward reward(Player player, RewardStatus status) {
+        return Reward.builder()
+            .player(player)
+            .rewardType(RewardType.WAVE_SURVIVAL)
+            .amount(new BigDecimal("0.01"))
+            .status(status)
+            .wavesSurvived(3)
+            .score(300)
+            .reason("Wave survival reward")
+            .build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.atlasbrawler.backend.service;
+
+import com.atlasbrawler.backend.PostgresTestBase;
+import com.atlasbrawler.backend.domain.Player;
+import com.atlasbrawler.backend.domain.Transaction;
+import com.atlasbrawler.backend.domain.enums.TransactionType;
+import com.atlasbrawler.backend.dto.KeysetPage;
+import com.atlasbrawler.backend.dto.TransactionResponse;
+import com.atlasbrawler.backend.repository.PlayerRepository;
+import com.atlasbrawler.backend.repository.TransactionRepository;
+import com.atlasbrawler.backend.util.JsonRpcBatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.web3j.protocol.Web3j;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+class TransactionLedgerServiceTest extends PostgresTestBase {
+
+    private static final String HOT_WALLET = "0x2c7536e3605d9c16a7a3d7b1898e529396a65c23";
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionLedgerService ledgerService;
+    private Player alice;
+    private Player bob;
+
+    @BeforeEach
+    void setUp() {
+        ledgerService = new TransactionLedgerService(transactionRepository, playerRepository,
+            mock(TransactionReceiptTracker.class), jdbcTemplate, mock(Web3j.class), mock(JsonRpcBatcher.class),
+            new TransactionTemplate(transactionManager));
+        alice = playerRepository.saveAndFlush(Player.builder()
+            .walletAddress("0x1111111111111111111111111111111111111111").username("alice").build());
+        bob = playerRepository.saveAndFlush(Player.builder()
+            .walletAddress("0x2222222222222222222222222222222222222222").username("bob").build());
+    }
+
+    @Test
+    void recordAllTakesIdsFromTheSequenceAndSkipsRecordedEntries() {
+        ledgerService.recordAll(List.of(
+            payout(alice, "0xaa", "1.5"),
+            payout(bob, "0xaa", "2"),
+            payout(alice, "0xbb", "3")));
+        ledgerService.recordAll(List.of(
+            payout(alice, "0xaa", "1.5"),
+            payout(bob, "0xcc", "4")));
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+            "SELECT id, status, created_at, updated_at FROM transactions ORDER BY id");
+        assertThat(rows).hasSize(4);
+        assertThat(rows).extracting(row -> row.get("id")).doesNotHaveDuplicates().doesNotContainNull();
+        assertThat(rows).allSatisfy(row -> {
+            assertThat(row.get("status")).isEqualTo("PENDING");
+            assertThat(row.get("created_at")).isNotNull();
+            assertThat(row.get("updated_at")).isNotNull();
+        });
+
+        // Hibernate's pooled allocation on the same sequence must not collide with the JDBC rows
+        Transaction mapped = transactionRepository.saveAndFlush(payout(alice, "0xdd", "5"));
+        assertThat(rows).extracting(row -> ((Number) row.get("id")).longValue()).doesNotContain(mapped.getId());
+        assertThat(transactionRepository.count()).isEqualTo(5);
+    }
+
+    @Test
+    void historyPagesWalkEveryRowNewestFirst() {
+        List<Transaction> entries = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            entries.add(payout(alice, "0xa" + i, "1"));
+        }
+        entries.add(payout(bob, "0xb0", "1"));
+        ledgerService.recordAll(entries);
+        List<String> expected = jdbcTemplate.queryForList(
+            "SELECT transaction_hash FROM transactions WHERE player_id = ? ORDER BY id DESC", String.class, alice.getId());
+
+        List<String> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        Long cursor = null;
+        KeysetPage<TransactionResponse> page;
+        do {
+            page = ledgerService.getHistory(alice.getWalletAddress(), cursor, 2);
+            page.getItems().forEach(item -> seen.add(item.getTransactionHash()));
+            pageSizes.add(page.getItems().size());
+            cursor = page.getNextCursor() == null ? null : Long.valueOf(page.getNextCursor());
+        } while (page.isHasMore());
+
+        assertThat(seen).containsExactlyElementsOf(expected).hasSize(5);
+        assertThat(pageSizes).containsExactly(2, 2, 1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    private static Transaction payout(Player player, String hash, String amount) {
+        return Transaction.builder()
+            .player(player)
+            .transactionType(TransactionType.REWARD_CLAIM)
+            .amount(new BigDecimal(amount))
+            .transactionHash(hash)
+            .fromAddress(HOT_WALLET)
+            .toAddress(player.getWalletAddress())
+            .description("Reward payout")
+            .build();
+    }
+}
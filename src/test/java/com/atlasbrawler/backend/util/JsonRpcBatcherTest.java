@@ -0,0 +1,127 @@
+package com.atlasbrawler.backend.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthBlockNumber;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JsonRpcBatcherTest {
+
+    private Web3j web3j;
+    private BatchRequest batch;
+    private JsonRpcBatcher batcher;
+    private final List<Request<?, ?>> added = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        web3j = mock(Web3j.class);
+        batch = mock(BatchRequest.class);
+        when(web3j.newBatch()).thenReturn(batch);
+        when(batch.add(any())).thenAnswer(invocation -> {
+            added.add(invocation.getArgument(0));
+            return batch;
+        });
+
+        batcher = new JsonRpcBatcher(web3j);
+        // Only a full batch flushes within the test
+        ReflectionTestUtils.setField(batcher, "maxBatchSize", 3);
+        ReflectionTestUtils.setField(batcher, "lingerMs", 60_000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.shutdown();
+    }
+
+    @Test
+    void matchesResponsesToCallsByIdWhateverTheirOrder() throws Exception {
+        Request<?, EthBlockNumber> first = request(101);
+        Request<?, EthBlockNumber> second = request(102);
+        Request<?, EthBlockNumber> third = request(103);
+        answerBatchWith(blockNumber(103, "0x3"), blockNumber(101, "0x1"), blockNumber(102, "0x2"));
+
+        CompletableFuture<EthBlockNumber> firstResult = batcher.submit(first);
+        CompletableFuture<EthBlockNumber> secondResult = batcher.submit(second);
+        CompletableFuture<EthBlockNumber> thirdResult = batcher.submit(third);
+
+        assertThat(firstResult.get(5, TimeUnit.SECONDS).getBlockNumber()).isEqualTo(BigInteger.ONE);
+        assertThat(secondResult.get(5, TimeUnit.SECONDS).getBlockNumber()).isEqualTo(BigInteger.TWO);
+        assertThat(thirdResult.get(5, TimeUnit.SECONDS).getBlockNumber()).isEqualTo(BigInteger.valueOf(3));
+        assertThat(added).containsExactly(first, second, third);
+        verify(first, never()).sendAsync();
+    }
+
+    @Test
+    void failsCallsWhoseResponseIsMissingFromTheBatch() throws Exception {
+        Request<?, EthBlockNumber> answered = request(201);
+        Request<?, EthBlockNumber> dropped = request(202);
+        Request<?, EthBlockNumber> alsoAnswered = request(203);
+        answerBatchWith(blockNumber(201, "0xa"), blockNumber(203, "0xb"));
+
+        CompletableFuture<EthBlockNumber> answeredResult = batcher.submit(answered);
+        CompletableFuture<EthBlockNumber> droppedResult = batcher.submit(dropped);
+        CompletableFuture<EthBlockNumber> alsoAnsweredResult = batcher.submit(alsoAnswered);
+
+        assertThat(answeredResult.get(5, TimeUnit.SECONDS).getBlockNumber()).isEqualTo(BigInteger.TEN);
+        assertThat(alsoAnsweredResult.get(5, TimeUnit.SECONDS).getBlockNumber()).isEqualTo(BigInteger.valueOf(11));
+        assertThatThrownBy(() -> droppedResult.get(5, TimeUnit.SECONDS))
+            .isInstanceOf(ExecutionException.class)
+            .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void failsEveryCallWhenTheBatchFails() {
+        when(batch.sendAsync()).thenReturn(CompletableFuture.failedFuture(new IOException("connection reset")));
+
+        List<CompletableFuture<EthBlockNumber>> results = batcher.submitAll(List.of(request(301), request(302), request(303)));
+
+        for (CompletableFuture<EthBlockNumber> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseMessage("connection reset");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Request<?, EthBlockNumber> request(long id) {
+        Request<?, EthBlockNumber> request = mock(Request.class);
+        when(request.getId()).thenReturn(id);
+        when(request.getMethod()).thenReturn("eth_blockNumber");
+        return request;
+    }
+
+    private void answerBatchWith(Response<?>... responses) {
+        BatchResponse response = mock(BatchResponse.class);
+        when(response.getResponses()).thenAnswer(invocation -> List.of(responses));
+        when(batch.sendAsync()).thenReturn(CompletableFuture.completedFuture(response));
+    }
+
+    private static EthBlockNumber blockNumber(long id, String hex) {
+        EthBlockNumber response = new EthBlockNumber();
+        response.setId(id);
+        response.setResult(hex);
+        return response;
+    }
+}
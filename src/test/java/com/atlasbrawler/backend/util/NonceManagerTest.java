@@ -0,0 +1,112 @@
+package com.atlasbrawler.backend.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.web3j.crypto.Credentials;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NonceManagerTest {
+
+    private static final Credentials CREDENTIALS =
+        Credentials.create("0x4c0883a69102937d6231471b5dbb6204fe5129617082792ae468d01a3f362318");
+
+    private JsonRpcBatcher rpcBatcher;
+    private Request<?, EthGetTransactionCount> countRequest;
+    private NonceManager nonceManager;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        Web3j web3j = mock(Web3j.class);
+        rpcBatcher = mock(JsonRpcBatcher.class);
+        countRequest = mock(Request.class);
+        doReturn(countRequest).when(web3j)
+            .ethGetTransactionCount(CREDENTIALS.getAddress(), DefaultBlockParameterName.PENDING);
+        nonceManager = new NonceManager(web3j, CREDENTIALS, rpcBatcher);
+    }
+
+    @Test
+    void seedsFromPendingCountOnceThenCountsLocally() {
+        when(rpcBatcher.submit(countRequest)).thenReturn(CompletableFuture.completedFuture(count("0x7")));
+
+        assertThat(nonceManager.reserve()).isEqualTo(BigInteger.valueOf(7));
+        assertThat(nonceManager.reserve()).isEqualTo(BigInteger.valueOf(8));
+        assertThat(nonceManager.reserve()).isEqualTo(BigInteger.valueOf(9));
+        verify(rpcBatcher, times(1)).submit(countRequest);
+    }
+
+    @Test
+    void resyncReadsThePendingCountAgain() {
+        when(rpcBatcher.submit(countRequest)).thenReturn(
+            CompletableFuture.completedFuture(count("0x3")),
+            CompletableFuture.completedFuture(count("0x4")));
+
+        assertThat(nonceManager.reserve()).isEqualTo(BigInteger.valueOf(3));
+        assertThat(nonceManager.reserve()).isEqualTo(BigInteger.valueOf(4));
+
+        // The transfer using nonce 4 was dropped, so the chain still expects 4
+        nonceManager.requestResync();
+        nonceManager.resyncIfRequested();
+
+        assertThat(nonceManager.reserve()).isEqualTo(BigInteger.valueOf(4));
+        assertThat(nonceManager.reserve()).isEqualTo(BigInteger.valueOf(5));
+        verify(rpcBatcher, times(2)).submit(countRequest);
+    }
+
+    @Test
+    void requestedResyncWaitsUntilItIsApplied() {
+        when(rpcBatcher.submit(countRequest)).thenReturn(
+            CompletableFuture.completedFuture(count("0x3")),
+            CompletableFuture.completedFuture(count("0x3")));
+
+        assertThat(nonceManager.reserve()).isEqualTo(BigInteger.valueOf(3));
+
+        // Requested from a receipt callback while nonce 4 is reserved but not broadcast yet
+        nonceManager.requestResync();
+        assertThat(nonceManager.reserve()).isEqualTo(BigInteger.valueOf(4));
+        assertThat(nonceManager.reserve()).isEqualTo(BigInteger.valueOf(5));
+        verify(rpcBatcher, times(1)).submit(countRequest);
+
+        nonceManager.resyncIfRequested();
+        nonceManager.resyncIfRequested();
+        assertThat(nonceManager.reserve()).isEqualTo(BigInteger.valueOf(3));
+        verify(rpcBatcher, times(2)).submit(countRequest);
+    }
+
+    @Test
+    void failsWhenTheNodeReturnsAnError() {
+        EthGetTransactionCount error = new EthGetTransactionCount();
+        error.setError(new Response.Error(-32000, "header not found"));
+        when(rpcBatcher.submit(countRequest)).thenReturn(
+            CompletableFuture.completedFuture(error),
+            CompletableFuture.completedFuture(count("0x1")));
+
+        assertThatThrownBy(() -> nonceManager.reserve())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("header not found");
+
+        // A failed seed leaves the counter unset, so the next call retries
+        assertThat(nonceManager.reserve()).isEqualTo(BigInteger.ONE);
+    }
+
+    private static EthGetTransactionCount count(String hex) {
+        EthGetTransactionCount count = new EthGetTransactionCount();
+        count.setResult(hex);
+        return count;
+    }
+}
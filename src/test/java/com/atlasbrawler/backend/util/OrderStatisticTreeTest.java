@@ -0,0 +1,93 @@
+package com.atlasbrawler.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderStatisticTreeTest {
+
+    private final OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.reverseOrder());
+
+    @Test
+    void ranksAndIndexesInComparatorOrder() {
+        List.of(30, 10, 50, 20, 40).forEach(tree::add);
+
+        assertThat(tree.size()).isEqualTo(5);
+        assertThat(tree.rank(50)).isZero();
+        assertThat(tree.rank(30)).isEqualTo(2);
+        assertThat(tree.rank(10)).isEqualTo(4);
+        assertThat(tree.rank(35)).isEqualTo(-1);
+        assertThat(tree.get(0)).isEqualTo(50);
+        assertThat(tree.get(4)).isEqualTo(10);
+        assertThat(tree.range(1, 3)).containsExactly(40, 30);
+    }
+
+    @Test
+    void rejectsDuplicatesAndMissingRemovals() {
+        assertThat(tree.add(7)).isTrue();
+        assertThat(tree.add(7)).isFalse();
+        assertThat(tree.remove(8)).isFalse();
+        assertThat(tree.remove(7)).isTrue();
+        assertThat(tree.size()).isZero();
+    }
+
+    @Test
+    void clampsRangesAndBoundsPositionalAccess() {
+        List.of(3, 2, 1).forEach(tree::add);
+
+        assertThat(tree.range(-5, 2)).containsExactly(3, 2);
+        assertThat(tree.range(1, 100)).containsExactly(2, 1);
+        assertThat(tree.range(5, 10)).isEmpty();
+        assertThat(tree.range(2, 1)).isEmpty();
+        assertThatThrownBy(() -> tree.get(3)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> tree.get(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void matchesASortedListUnderRandomInsertsAndRemovals() {
+        Random random = new Random(42);
+        List<Integer> expected = new ArrayList<>();
+
+        for (int i = 0; i < 5_000; i++) {
+            int value = random.nextInt(1_000);
+            int index = Collections.binarySearch(expected, value, Comparator.reverseOrder());
+            if (random.nextInt(3) == 0) {
+                assertThat(tree.remove(value)).isEqualTo(index >= 0);
+                if (index >= 0) {
+                    expected.remove(index);
+                }
+            } else {
+                assertThat(tree.add(value)).isEqualTo(index < 0);
+                if (index < 0) {
+                    expected.add(-index - 1, value);
+                }
+            }
+        }
+
+        assertThat(tree.size()).isEqualTo(expected.size());
+        assertThat(tree.range(0, tree.size())).isEqualTo(expected);
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(tree.get(i)).isEqualTo(expected.get(i));
+            assertThat(tree.rank(expected.get(i))).isEqualTo(i);
+        }
+        assertThat(tree.range(100, 150)).isEqualTo(expected.subList(100, 150));
+    }
+
+    @Test
+    void clearEmptiesTheTree() {
+        List.of(1, 2, 3).forEach(tree::add);
+
+        tree.clear();
+
+        assertThat(tree.size()).isZero();
+        assertThat(tree.rank(2)).isEqualTo(-1);
+        assertThat(tree.range(0, 10)).isEmpty();
+    }
+}
@@ -0,0 +1,101 @@
+package com.atlasbrawler.backend.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RateLimiterTest {
+
+    private static final String WALLET = "0xAbCdEf0123456789aBcDeF0123456789AbCdEf01";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void rejectsOverTheLimitWithRetryAfter() {
+        RateLimiter rateLimiter = limiter(new MockEnvironment()
+            .withProperty("rate-limit.reward-claim.wallet.capacity", "2")
+            .withProperty("rate-limit.reward-claim.wallet.refill-per-minute", "1"));
+
+        rateLimiter.acquire(RateLimiter.Route.REWARD_CLAIM, RateLimiter.KeyType.WALLET, WALLET);
+        rateLimiter.acquire(RateLimiter.Route.REWARD_CLAIM, RateLimiter.KeyType.WALLET, WALLET.toLowerCase());
+
+        assertThatThrownBy(() -> rateLimiter.acquire(RateLimiter.Route.REWARD_CLAIM, RateLimiter.KeyType.WALLET, WALLET))
+            .isInstanceOfSatisfying(RetryLaterException.class, e -> {
+                assertThat(e.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+                assertThat(e.getRetryAfterSeconds()).isBetween(1L, 60L);
+                assertThat(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER))
+                    .isEqualTo(Long.toString(e.getRetryAfterSeconds()));
+            });
+        assertThat(meterRegistry.get("ratelimit.rejected").tag("route", "reward-claim").tag("key", "wallet")
+            .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void keepsSeparateBucketsPerKeyAndKeyType() {
+        RateLimiter rateLimiter = limiter(new MockEnvironment()
+            .withProperty("rate-limit.reward-claim.wallet.capacity", "1")
+            .withProperty("rate-limit.reward-claim.wallet.refill-per-minute", "1")
+            .withProperty("rate-limit.reward-claim.ip.capacity", "1")
+            .withProperty("rate-limit.reward-claim.ip.refill-per-minute", "1"));
+
+        rateLimiter.acquire(RateLimiter.Route.REWARD_CLAIM, RateLimiter.KeyType.WALLET, WALLET);
+
+        assertThatCode(() -> {
+            rateLimiter.acquire(RateLimiter.Route.REWARD_CLAIM, RateLimiter.KeyType.WALLET, "0x1111111111111111111111111111111111111111");
+            rateLimiter.acquire(RateLimiter.Route.REWARD_CLAIM, RateLimiter.KeyType.IP, "203.0.113.7");
+        }).doesNotThrowAnyException();
+        assertThatThrownBy(() -> rateLimiter.acquire(RateLimiter.Route.REWARD_CLAIM, RateLimiter.KeyType.IP, "203.0.113.7"))
+            .isInstanceOf(RetryLaterException.class);
+    }
+
+    @Test
+    void zeroCapacityAndDisabledLimiterNeverReject() {
+        RateLimiter defaults = limiter(new MockEnvironment());
+        // Game sessions are unsigned, so they have no wallet limit by default
+        assertThatCode(() -> {
+            for (int i = 0; i < 500; i++) {
+                defaults.acquire(RateLimiter.Route.GAME_SESSION, RateLimiter.KeyType.WALLET, WALLET);
+            }
+        }).doesNotThrowAnyException();
+
+        RateLimiter disabled = limiter(new MockEnvironment()
+            .withProperty("rate-limit.enabled", "false")
+            .withProperty("rate-limit.reward-claim.wallet.capacity", "1")
+            .withProperty("rate-limit.reward-claim.wallet.refill-per-minute", "1"));
+        assertThatCode(() -> {
+            disabled.acquire(RateLimiter.Route.REWARD_CLAIM, RateLimiter.KeyType.WALLET, WALLET);
+            disabled.acquire(RateLimiter.Route.REWARD_CLAIM, RateLimiter.KeyType.WALLET, WALLET);
+        }).doesNotThrowAnyException();
+    }
+
+    @Test
+    void sweepDropsOnlyRefilledBuckets() throws InterruptedException {
+        RateLimiter rateLimiter = limiter(new MockEnvironment()
+            .withProperty("rate-limit.reward-claim.wallet.capacity", "1")
+            .withProperty("rate-limit.reward-claim.wallet.refill-per-minute", "1")
+            .withProperty("rate-limit.reward-claim.ip.capacity", "1")
+            .withProperty("rate-limit.reward-claim.ip.refill-per-minute", "60000000"));
+
+        rateLimiter.acquire(RateLimiter.Route.REWARD_CLAIM, RateLimiter.KeyType.WALLET, WALLET);
+        rateLimiter.acquire(RateLimiter.Route.REWARD_CLAIM, RateLimiter.KeyType.IP, "203.0.113.7");
+        assertThat(meterRegistry.get("ratelimit.buckets").gauge().value()).isEqualTo(2.0);
+
+        // The IP bucket regains its token after a microsecond, the wallet bucket after a minute
+        Thread.sleep(5);
+        rateLimiter.sweep();
+
+        assertThat(meterRegistry.get("ratelimit.buckets").gauge().value()).isEqualTo(1.0);
+        assertThatThrownBy(() -> rateLimiter.acquire(RateLimiter.Route.REWARD_CLAIM, RateLimiter.KeyType.WALLET, WALLET))
+            .isInstanceOf(RetryLaterException.class);
+    }
+
+    private RateLimiter limiter(MockEnvironment environment) {
+        return new RateLimiter(environment, meterRegistry);
+    }
+}
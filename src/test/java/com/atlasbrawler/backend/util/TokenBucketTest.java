@@ -0,0 +1,55 @@
+package com.atlasbrawler.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long NOW = 1_000_000_000L;
+
+    @Test
+    void allowsABurstUpToCapacityThenReportsTheWait() {
+        TokenBucket bucket = new TokenBucket(3, 100);
+
+        assertThat(bucket.tryAcquire(NOW)).isZero();
+        assertThat(bucket.tryAcquire(NOW)).isZero();
+        assertThat(bucket.tryAcquire(NOW)).isZero();
+        assertThat(bucket.tryAcquire(NOW)).isEqualTo(100);
+        assertThat(bucket.tryAcquire(NOW + 40)).isEqualTo(60);
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket(2, 100);
+        bucket.tryAcquire(NOW);
+        bucket.tryAcquire(NOW);
+
+        assertThat(bucket.tryAcquire(NOW + 100)).isZero();
+        assertThat(bucket.tryAcquire(NOW + 100)).isEqualTo(100);
+        assertThat(bucket.tryAcquire(NOW + 250)).isZero();
+        assertThat(bucket.tryAcquire(NOW + 250)).isEqualTo(50);
+    }
+
+    @Test
+    void idleTimeDoesNotBankMoreThanCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 100);
+
+        long later = NOW + 10_000;
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isPositive();
+    }
+
+    @Test
+    void isFullOnlyOnceEveryTokenIsBack() {
+        TokenBucket bucket = new TokenBucket(2, 100);
+        assertThat(bucket.isFull(NOW)).isTrue();
+
+        bucket.tryAcquire(NOW);
+        bucket.tryAcquire(NOW);
+
+        assertThat(bucket.isFull(NOW + 199)).isFalse();
+        assertThat(bucket.isFull(NOW + 200)).isTrue();
+    }
+}
@@ -0,0 +1,118 @@
+package com.atlasbrawler.backend.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthGetBalance;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WalletBalanceCacheTest {
+
+    private static final String ALICE = "0x1111111111111111111111111111111111111111";
+    private static final String BOB = "0x2222222222222222222222222222222222222222";
+    private static final BigInteger ONE_ETHER = BigInteger.TEN.pow(18);
+
+    private final AtomicReference<BigInteger> head = new AtomicReference<>(BigInteger.valueOf(100));
+    private final List<BigInteger> fetchedBlocks = new ArrayList<>();
+    private final Map<Request<?, ?>, BigInteger> requestBlocks = new IdentityHashMap<>();
+    private final List<CompletableFuture<EthGetBalance>> inFlight = new ArrayList<>();
+    private WalletBalanceCache cache;
+    private boolean answerAtOnce = true;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        Web3j web3j = mock(Web3j.class);
+        when(web3j.ethGetBalance(anyString(), any(DefaultBlockParameter.class))).thenAnswer(invocation -> {
+            Request<?, EthGetBalance> request = mock(Request.class);
+            requestBlocks.put(request, ((DefaultBlockParameterNumber) invocation.getArgument(1)).getBlockNumber());
+            return request;
+        });
+
+        // Balances grow by one ether per block, so a refetch at a newer block is visible in the result
+        JsonRpcBatcher rpcBatcher = mock(JsonRpcBatcher.class);
+        when(rpcBatcher.submit(any())).thenAnswer(invocation -> {
+            BigInteger block = requestBlocks.get(invocation.<Request<?, ?>>getArgument(0));
+            fetchedBlocks.add(block);
+            CompletableFuture<EthGetBalance> result = new CompletableFuture<>();
+            inFlight.add(result);
+            if (answerAtOnce) {
+                result.complete(balance(block));
+            }
+            return result;
+        });
+
+        ChainHeadTracker headTracker = mock(ChainHeadTracker.class);
+        when(headTracker.currentHead()).thenAnswer(invocation -> CompletableFuture.completedFuture(head.get()));
+
+        cache = new WalletBalanceCache(web3j, rpcBatcher, headTracker, new BlockchainUtil(), Runnable::run, 1000);
+    }
+
+    @Test
+    void balancesAreServedFromCacheUntilTheHeadMoves() throws Exception {
+        assertThat(balanceOf(ALICE)).isEqualByComparingTo("100");
+        assertThat(balanceOf(BOB)).isEqualByComparingTo("100");
+        assertThat(fetchedBlocks).containsExactly(BigInteger.valueOf(100), BigInteger.valueOf(100));
+
+        head.set(BigInteger.valueOf(101));
+
+        // Both wallets were cached at block 100 and are read again at the new head
+        assertThat(balanceOf(ALICE)).isEqualByComparingTo("101");
+        assertThat(balanceOf(BOB)).isEqualByComparingTo("101");
+        assertThat(balanceOf(ALICE)).isEqualByComparingTo("101");
+        assertThat(fetchedBlocks).containsExactly(BigInteger.valueOf(100), BigInteger.valueOf(100),
+            BigInteger.valueOf(101), BigInteger.valueOf(101));
+    }
+
+    @Test
+    void concurrentLookupsShareOneRequest() throws Exception {
+        answerAtOnce = false;
+
+        CompletableFuture<BigDecimal> first = cache.getBalance(ALICE);
+        CompletableFuture<BigDecimal> second = cache.getBalance(ALICE);
+        assertThat(inFlight).hasSize(1);
+        inFlight.get(0).complete(balance(BigInteger.valueOf(100)));
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualByComparingTo("100");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualByComparingTo("100");
+    }
+
+    @Test
+    void batchLookupFetchesOnlyMissesInInputOrder() throws Exception {
+        balanceOf(ALICE);
+
+        Map<String, BigDecimal> found = cache.getBalances(List.of(BOB, ALICE)).get(5, TimeUnit.SECONDS);
+
+        assertThat(found).containsOnlyKeys(BOB, ALICE);
+        assertThat(new ArrayList<>(found.keySet())).containsExactly(BOB, ALICE);
+        assertThat(fetchedBlocks).hasSize(2);
+    }
+
+    private BigDecimal balanceOf(String address) throws Exception {
+        return cache.getBalance(address).get(5, TimeUnit.SECONDS);
+    }
+
+    private static EthGetBalance balance(BigInteger block) {
+        EthGetBalance response = new EthGetBalance();
+        response.setResult("0x" + ONE_ETHER.multiply(block).toString(16));
+        return response;
+    }
+}